@@ -0,0 +1,46 @@
+package com.atlassian.braid;
+
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.newSchemaSources;
+
+/**
+ * Building the braided schema, in this package as {@link BraidSchema} is internal.
+ * <p>The schema sources are re-used from one build to the next, which is fine as none of their links replaces its
+ * <em>from</em> field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BraidSchemaBenchmark {
+
+    private List<SchemaSource> schemaSources;
+
+    @Setup
+    public void setUp() {
+        schemaSources = newSchemaSources();
+    }
+
+    @Benchmark
+    public GraphQLSchema from() {
+        return BraidSchema.from(new TypeDefinitionRegistry(), RuntimeWiring.newRuntimeWiring(), schemaSources).getSchema();
+    }
+}
@@ -0,0 +1,108 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.Link;
+import com.atlassian.braid.SchemaNamespace;
+import com.atlassian.braid.SchemaSource;
+import com.atlassian.braid.document.DocumentMappers;
+import com.atlassian.braid.mapper.Mappers;
+import com.atlassian.braid.source.GraphQLRemoteSchemaSource;
+import com.atlassian.braid.source.yaml.RestRemoteSchemaSource;
+import com.atlassian.braid.source.yaml.RestRemoteSchemaSource.RootField;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static com.atlassian.braid.source.SchemaUtils.loadSchema;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * The schema sources used by the benchmarks, issues linking to users and projects:
+ * <ul>
+ * <li>issues, a GraphQL source with a document mapper (some fields are named differently remotely)</li>
+ * <li>users, a GraphQL source</li>
+ * <li>projects, a REST source whose responses are mapped</li>
+ * </ul>
+ * All of them are backed by in-memory fake retrievers.
+ */
+public final class BenchmarkSchemaSources {
+
+    public static final SchemaNamespace ISSUES = SchemaNamespace.of("issues");
+    public static final SchemaNamespace USERS = SchemaNamespace.of("users");
+    public static final SchemaNamespace PROJECTS = SchemaNamespace.of("projects");
+
+    /**
+     * Queries the first {@code $first} issues with their linked users and projects
+     */
+    public static final String ISSUES_QUERY = "query Issues($first: Int) {\n" +
+            "  issues(first: $first) {\n" +
+            "    id\n" +
+            "    key\n" +
+            "    summary\n" +
+            "    status\n" +
+            "    assignee { id name displayName email }\n" +
+            "    reporter { id displayName avatarUrl }\n" +
+            "    project { key name leadName }\n" +
+            "    comments(first: 2) { body author { displayName } }\n" +
+            "  }\n" +
+            "}";
+
+    private BenchmarkSchemaSources() {
+    }
+
+    public static List<SchemaSource> newSchemaSources() {
+        return newSchemaSources(UnaryOperator.identity());
+    }
+
+    /**
+     * @param usersSourceDecorator decorates the users schema source, e.g. to capture the environments of link fetches
+     */
+    public static List<SchemaSource> newSchemaSources(UnaryOperator<SchemaSource> usersSourceDecorator) {
+        return asList(
+                newIssuesSource(),
+                usersSourceDecorator.apply(newUsersSource()),
+                newProjectsSource());
+    }
+
+    private static SchemaSource newIssuesSource() {
+        final List<Link> links = asList(
+                Link.from(ISSUES, "Issue", "assignee").to(USERS, "User", "user").build(),
+                Link.from(ISSUES, "Issue", "reporter").to(USERS, "User", "user").build(),
+                Link.from(ISSUES, "Comment", "author").to(USERS, "User", "user").build(),
+                Link.from(ISSUES, "Issue", "project").to(PROJECTS, "Project", "project").argument("key").build());
+
+        return new GraphQLRemoteSchemaSource<>(ISSUES,
+                resource("issues.graphql"),
+                new FakeGraphQLRemoteRetriever<>(loadSchema(resource("issues-remote.graphql"))),
+                links,
+                DocumentMappers.fromYaml(resource("issues-mapper.yml")));
+    }
+
+    private static SchemaSource newUsersSource() {
+        return new GraphQLRemoteSchemaSource<>(USERS,
+                resource("users.graphql"),
+                new FakeGraphQLRemoteRetriever<>(loadSchema(resource("users.graphql"))),
+                emptyList());
+    }
+
+    private static SchemaSource newProjectsSource() {
+        final RootField project = new RootField("project",
+                "https://projects.example.com/rest/api/2/project/{key}",
+                Mappers.fromYaml(resource("projects-mapper.yml")));
+
+        return new RestRemoteSchemaSource<>(PROJECTS,
+                resource("projects.graphql"),
+                new FakeRestRemoteRetriever<>(),
+                singletonMap("project", project),
+                emptyList());
+    }
+
+    static Supplier<Reader> resource(String name) {
+        return () -> new InputStreamReader(BenchmarkSchemaSources.class.getResourceAsStream(name), UTF_8);
+    }
+}
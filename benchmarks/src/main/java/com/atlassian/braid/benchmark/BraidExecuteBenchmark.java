@@ -0,0 +1,60 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.Braid;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.ISSUES_QUERY;
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.newSchemaSources;
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Collections.singletonMap;
+
+/**
+ * A whole Braid query, i.e. {@code Braid.newGraphQL().execute(...)}, of issues with their linked users and projects
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BraidExecuteBenchmark {
+
+    @Param({"1", "100"})
+    public int issues;
+
+    private Braid braid;
+    private ExecutionInput executionInput;
+
+    @Setup
+    public void setUp() {
+        braid = Braid.builder().schemaSources(newSchemaSources()).build();
+        executionInput = newExecutionInput()
+                .query(ISSUES_QUERY)
+                .variables(singletonMap("first", issues))
+                .build();
+
+        final ExecutionResult result = execute();
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException("Unexpected errors: " + result.getErrors());
+        }
+    }
+
+    @Benchmark
+    public ExecutionResult execute() {
+        return braid.newGraphQL().execute(executionInput).join();
+    }
+}
@@ -0,0 +1,104 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.document.DocumentMapper;
+import com.atlassian.braid.document.DocumentMapper.MappedDocument;
+import com.atlassian.braid.document.DocumentMappers;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.resource;
+import static com.atlassian.braid.source.SchemaUtils.loadSchema;
+
+/**
+ * The (typed) document mapper of the issues source, mapping a batch query of issues and then its result
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentMapperBenchmark {
+
+    @Param({"1", "100"})
+    public int fields;
+
+    private DocumentMapper documentMapper;
+    private Document document;
+    private MappedDocument mappedDocument;
+    private Map<String, Object> result;
+
+    @Setup
+    public void setUp() {
+        documentMapper = DocumentMappers.fromYaml(resource("issues-mapper.yml"))
+                .apply(loadSchema(resource("issues.graphql")));
+        document = new Parser().parseDocument(newBatchQuery(fields));
+        mappedDocument = documentMapper.apply(document);
+        result = newBatchResult(fields);
+    }
+
+    @Benchmark
+    public MappedDocument mapDocument() {
+        return documentMapper.apply(document);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapResult() {
+        return mappedDocument.getResultMapper().apply(result);
+    }
+
+    private static String newBatchQuery(int fields) {
+        final StringBuilder variables = new StringBuilder();
+        final StringBuilder selections = new StringBuilder();
+        for (int i = 100; i < 100 + fields; i++) {
+            variables.append(variables.length() == 0 ? "" : ", ").append("$id").append(i).append(": String");
+            selections.append("  issue").append(i).append(": issue(id: $id").append(i).append(") {\n")
+                    .append("    id key summary status assignee project\n")
+                    .append("    comments(first: 2) { id body author }\n")
+                    .append("  }\n");
+        }
+        return "query Bulk_Issue(" + variables + ") {\n" + selections + "}";
+    }
+
+    private static Map<String, Object> newBatchResult(int fields) {
+        final Map<String, Object> result = new HashMap<>();
+        for (int i = 100; i < 100 + fields; i++) {
+            final List<Object> comments = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                final Map<String, Object> comment = new HashMap<>();
+                comment.put("id", "comment-" + i + "-" + j);
+                comment.put("body", "Comment " + j + " of issue " + i);
+                comment.put("author", "user-" + j);
+                comments.add(comment);
+            }
+
+            final Map<String, Object> issue = new HashMap<>();
+            issue.put("id", "issue-" + i);
+            issue.put("issueKey", "BRAID-" + i);
+            issue.put("title", "Summary of issue " + i);
+            issue.put("status", "Open");
+            issue.put("assignee", "user-" + i);
+            issue.put("project", "BRAID");
+            issue.put("comments", comments);
+            result.put("issue" + i, issue);
+        }
+        return result;
+    }
+}
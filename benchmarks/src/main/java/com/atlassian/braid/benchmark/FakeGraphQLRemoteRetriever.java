@@ -0,0 +1,109 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.source.GraphQLRemoteRetriever;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import graphql.schema.idl.FieldWiringEnvironment;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.WiringFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * An in-memory {@link GraphQLRemoteRetriever} answering any query of its schema with generated data.
+ * <p>Responses are memoized by query and variables, so that once warmed up the <em>remote</em> side of a benchmark
+ * costs next to nothing.
+ */
+final class FakeGraphQLRemoteRetriever<C> implements GraphQLRemoteRetriever<C> {
+
+    private static final int DEFAULT_LIST_SIZE = 3;
+
+    private final GraphQL graphQL;
+    private final Map<List<Object>, Map<String, Object>> responses = new ConcurrentHashMap<>();
+
+    FakeGraphQLRemoteRetriever(TypeDefinitionRegistry schema) {
+        final RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .wiringFactory(new GeneratingWiringFactory())
+                .build();
+        this.graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(schema, runtimeWiring)).build();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> queryGraphQL(ExecutionInput executionInput, C context) {
+        final List<Object> key = Arrays.asList(
+                executionInput.getQuery(), executionInput.getOperationName(), executionInput.getVariables());
+        return completedFuture(responses.computeIfAbsent(key, __ -> graphQL.execute(executionInput).toSpecification()));
+    }
+
+    /**
+     * Wires every field to a data fetcher generating its value from the id of its parent, or its own id or key
+     * argument. Lists have as many items as their {@code first} argument, if any.
+     */
+    private static class GeneratingWiringFactory implements WiringFactory {
+        @Override
+        public boolean providesDataFetcher(FieldWiringEnvironment environment) {
+            return true;
+        }
+
+        @Override
+        public DataFetcher getDataFetcher(FieldWiringEnvironment environment) {
+            return GeneratingWiringFactory::fetch;
+        }
+
+        private static Object fetch(DataFetchingEnvironment environment) {
+            final String name = environment.getField().getName();
+            final Object source = environment.getSource();
+            if (source instanceof Map && ((Map) source).containsKey(name)) {
+                return ((Map) source).get(name);
+            }
+            return newValue(environment.getFieldType(), name, getId(environment), environment.getArgument("first"));
+        }
+
+        private static String getId(DataFetchingEnvironment environment) {
+            Object id = environment.getArgument("id");
+            if (id == null) {
+                id = environment.getArgument("key");
+            }
+            if (id == null && environment.getSource() instanceof Map) {
+                id = environment.<Map>getSource().get("id");
+            }
+            return id == null ? environment.getField().getName() : String.valueOf(id);
+        }
+
+        private static Object newValue(GraphQLType type, String name, String id, @Nullable Integer first) {
+            if (type instanceof GraphQLNonNull) {
+                return newValue(((GraphQLNonNull) type).getWrappedType(), name, id, first);
+            } else if (type instanceof GraphQLList) {
+                final int size = first == null ? DEFAULT_LIST_SIZE : first;
+                final List<Object> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(newValue(((GraphQLList) type).getWrappedType(), name, id + "-" + i, null));
+                }
+                return values;
+            } else if (type instanceof GraphQLObjectType) {
+                final Map<String, Object> value = new HashMap<>();
+                value.put("id", id);
+                return value;
+            } else {
+                return name + "-" + id;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.BraidContext;
+import com.atlassian.braid.source.yaml.RestRemoteRetriever;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * An in-memory {@link RestRemoteRetriever} answering project resources, i.e. {@code .../project/{key}}, the way a
+ * typical REST API would, with more data than what is eventually mapped
+ */
+final class FakeRestRemoteRetriever<C> implements RestRemoteRetriever<C> {
+
+    @Override
+    public CompletableFuture<Map<String, Object>> get(URL url, BraidContext<C> context) {
+        final String path = url.getPath();
+        final String key = path.substring(path.lastIndexOf('/') + 1);
+
+        final Map<String, Object> lead = new HashMap<>();
+        lead.put("name", "lead-" + key);
+        lead.put("displayName", "Lead of " + key);
+        lead.put("active", true);
+
+        final Map<String, Object> project = new HashMap<>();
+        project.put("self", url.toString());
+        project.put("id", String.valueOf(key.hashCode()));
+        project.put("key", key);
+        project.put("name", "Project " + key);
+        project.put("projectTypeKey", "software");
+        project.put("description", "The description of project " + key);
+        project.put("lead", lead);
+        return completedFuture(project);
+    }
+}
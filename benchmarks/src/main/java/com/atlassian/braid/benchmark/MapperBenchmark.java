@@ -0,0 +1,49 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.mapper.Mapper;
+import com.atlassian.braid.mapper.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.resource;
+
+/**
+ * The YAML defined mapper of the projects REST source, applied to a project REST response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Mapper mapper;
+    private Map<String, Object> project;
+
+    @Setup
+    public void setUp() throws MalformedURLException {
+        mapper = Mappers.fromYaml(resource("projects-mapper.yml"));
+        project = new FakeRestRemoteRetriever<>()
+                .get(new URL("https://projects.example.com/rest/api/2/project/BRAID"), null)
+                .join();
+    }
+
+    @Benchmark
+    public Map<String, Object> apply() {
+        return mapper.apply(project);
+    }
+}
@@ -0,0 +1,166 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.Braid;
+import com.atlassian.braid.Link;
+import com.atlassian.braid.SchemaNamespace;
+import com.atlassian.braid.SchemaSource;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.BatchLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.atlassian.braid.benchmark.BenchmarkSchemaSources.newSchemaSources;
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@code QueryExecutor} batch loader of a link, loading a batch of users (one per issue) from the environments
+ * captured while running a Braid query.
+ * <p>Batch loaders cache the queries they build by batch shape, so a warm batch loader only measures binding the
+ * variables of an already built query. A cold one is a new batch loader for each batch, as for the first batch of its
+ * shape, measuring building the query as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryExecutorBatchLoaderBenchmark {
+
+    private static final String ASSIGNEES_QUERY =
+            "query Assignees($first: Int) { issues(first: $first) { assignee { id name displayName email } } }";
+
+    @Param({"1", "100", "10000"})
+    public int batchSize;
+
+    @Param({"true", "false"})
+    public boolean warm;
+
+    private BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> batchLoader;
+    private Supplier<BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>>> batchLoaderFactory;
+    private List<DataFetchingEnvironment> environments;
+
+    @Setup
+    public void setUp() {
+        final List<CapturingSchemaSource> usersSource = new ArrayList<>();
+        final Braid braid = Braid.builder()
+                .schemaSources(newSchemaSources(source -> {
+                    final CapturingSchemaSource capturingSource = new CapturingSchemaSource(source);
+                    usersSource.add(capturingSource);
+                    return capturingSource;
+                }))
+                .build();
+
+        braid.newGraphQL().execute(newExecutionInput()
+                .query(ASSIGNEES_QUERY)
+                .variables(singletonMap("first", batchSize))
+                .build())
+                .join();
+
+        final CapturingSchemaSource capturingSource = usersSource.get(0);
+        batchLoader = capturingSource.batchLoader;
+        batchLoaderFactory = capturingSource::newCapturedBatchLoader;
+        environments = capturingSource.environments;
+        if (environments.size() != batchSize) {
+            throw new IllegalStateException("Expected a batch of " + batchSize + " environments, got " + environments.size());
+        }
+    }
+
+    @Benchmark
+    public List<DataFetcherResult<Object>> load() {
+        final BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader =
+                warm ? batchLoader : batchLoaderFactory.get();
+        return loader.load(environments).toCompletableFuture().join();
+    }
+
+    /**
+     * Captures the largest batch loaded by its link batch loaders, along with the batch loader itself
+     */
+    private static class CapturingSchemaSource implements SchemaSource {
+        private final SchemaSource delegate;
+
+        private BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> batchLoader;
+        private Link link;
+        private List<DataFetchingEnvironment> environments = emptyList();
+
+        private CapturingSchemaSource(SchemaSource delegate) {
+            this.delegate = requireNonNull(delegate);
+        }
+
+        @Override
+        public TypeDefinitionRegistry getSchema() {
+            return delegate.getSchema();
+        }
+
+        @Override
+        public TypeDefinitionRegistry getPrivateSchema() {
+            return delegate.getPrivateSchema();
+        }
+
+        @Override
+        public SchemaNamespace getNamespace() {
+            return delegate.getNamespace();
+        }
+
+        @Override
+        public List<Link> getLinks() {
+            return delegate.getLinks();
+        }
+
+        @Override
+        public Optional<Integer> getMaxBatchSize() {
+            return delegate.getMaxBatchSize();
+        }
+
+        @Override
+        public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource,
+                                                                                              Link link) {
+            final BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader =
+                    delegate.newBatchLoader(delegate, link);
+            if (link == null) {
+                return loader;
+            }
+            return environments -> {
+                capture(loader, link, environments);
+                return loader.load(environments);
+            };
+        }
+
+        private synchronized void capture(BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader,
+                                          Link link,
+                                          List<DataFetchingEnvironment> environments) {
+            if (environments.size() > this.environments.size()) {
+                this.batchLoader = loader;
+                this.link = link;
+                this.environments = new ArrayList<>(environments);
+            }
+        }
+
+        /**
+         * @return a new batch loader for the link of the captured batch, with nothing cached yet
+         */
+        private BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newCapturedBatchLoader() {
+            return delegate.newBatchLoader(delegate, link);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.source.yaml.RestRemoteSchemaSource;
+import com.atlassian.braid.source.yaml.UriTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of a REST root field URI, by the precompiled {@link UriTemplate} and by the former
+ * {@link RestRemoteSchemaSource#replaceParams(Map, String) string replacements}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriTemplateBenchmark {
+
+    private static final String URI = "https://projects.example.com/rest/api/2/project/{key}/versions?startAt={startAt}&maxResults={maxResults}&orderBy={orderBy}";
+
+    private UriTemplate uriTemplate;
+    private Map<String, Object> arguments;
+
+    @Setup
+    public void setUp() {
+        uriTemplate = UriTemplate.parse(URI);
+        arguments = new HashMap<>();
+        arguments.put("key", "BRAID");
+        arguments.put("startAt", 50);
+        arguments.put("maxResults", 25);
+        arguments.put("orderBy", "-releaseDate");
+    }
+
+    @Benchmark
+    public String uriTemplate() {
+        return uriTemplate.expand(arguments);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String replaceParams() {
+        return RestRemoteSchemaSource.replaceParams(arguments, URI);
+    }
+}
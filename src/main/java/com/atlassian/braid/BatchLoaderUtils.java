@@ -9,19 +9,42 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import static com.atlassian.braid.java.util.BraidObjects.cast;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
  * A list of utility methods useful when building a new {@link org.dataloader.BatchLoader}
  */
 public class BatchLoaderUtils {
 
+    /**
+     * @deprecated this blocks until the source of the environment is available, use
+     * {@link #getTargetIdsFromEnvironmentAsync(Link, DataFetchingEnvironment)} instead
+     */
+    @Deprecated
     public static List getTargetIdsFromEnvironment(Link link, DataFetchingEnvironment environment) {
-        Object ids = waitForMapSource(environment, link.getSourceFromField()).orElse(null);
+        try {
+            return getTargetIdsFromEnvironmentAsync(link, environment).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the link target ids of the environment, once its source is available. This never blocks, the returned
+     * future completes when the (possibly asynchronous) source of the environment does.
+     */
+    public static CompletableFuture<List> getTargetIdsFromEnvironmentAsync(Link link, DataFetchingEnvironment environment) {
+        return getMapSource(environment.getSource(), link.getSourceFromField())
+                .thenApply(ids -> getTargetIds(environment, ids.orElse(null)));
+    }
+
+    private static List getTargetIds(DataFetchingEnvironment environment, Object ids) {
         if (ids instanceof String || ids instanceof Number) {
             return singletonList(ids);
         } else if (ids instanceof List) {
@@ -37,23 +60,25 @@ public class BatchLoaderUtils {
         }
     }
 
-    private static Optional<Object> waitForMapSource(DataFetchingEnvironment environment, String fromField) {
-        Object source = environment.getSource();
+    private static CompletableFuture<Optional<Object>> getMapSource(Object source, String fromField) {
         while (!(source instanceof Map)) {
-            if (source instanceof CompletableFuture) {
-                try {
-                    source = ((CompletableFuture) source).get();
-                } catch (InterruptedException | ExecutionException e) {
-                    throw new RuntimeException(e);
-                }
+            if (source instanceof CompletionStage) {
+                return ((CompletionStage<?>) source).toCompletableFuture()
+                        .thenCompose(s -> getMapSource(s, fromField));
             } else if (source instanceof DataFetcherResult) {
                 source = ((DataFetcherResult) source).getData();
             } else if (source instanceof String || source instanceof Number || source instanceof List) {
-                return Optional.of(source);
+                return completedFuture(Optional.of(source));
             } else {
-                throw new IllegalArgumentException("Unexpected parent type");
+                return failedFuture(new IllegalArgumentException("Unexpected parent type"));
             }
         }
-        return BraidMaps.get(cast(source), fromField);
+        return completedFuture(BraidMaps.get(cast(source), fromField));
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
     }
 }
@@ -1,5 +1,6 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.java.util.BraidObjects;
 import com.atlassian.braid.source.LocalQueryExecutingSchemaSource;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
@@ -12,6 +13,7 @@ import graphql.execution.ExecutionStrategy;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatchWindow;
 import graphql.execution.instrumentation.dataloader.LazyRecursiveDataLoaderDispatcherInstrumentation;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
@@ -19,8 +21,6 @@ import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.TypeDefinitionRegistry;
-import org.dataloader.BatchLoader;
-import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
 
 import javax.annotation.Nonnull;
@@ -29,10 +29,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 import static com.atlassian.braid.java.util.BraidLists.concat;
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
@@ -46,18 +43,15 @@ import static java.util.Objects.requireNonNull;
 @SuppressWarnings("WeakerAccess")
 public final class Braid {
     private final BraidSchema braidSchema;
-    private final BraidRuntime braidRuntime;
 
-    private final Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory;
-    private final BiFunction<BraidSchema, BraidRuntime, Function<DataLoaderRegistry, GraphQL>> factory;
+    /**
+     * The GraphQL instance is shared by all queries, only the data loaders are created per query execution
+     */
+    private final GraphQL graphQL;
 
-    private Braid(BraidSchema braidSchema, BraidRuntime braidRuntime,
-                  Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory,
-                  BiFunction<BraidSchema, BraidRuntime, Function<DataLoaderRegistry, GraphQL>> factory) {
+    private Braid(BraidSchema braidSchema, GraphQL graphQL) {
         this.braidSchema = requireNonNull(braidSchema);
-        this.braidRuntime = requireNonNull(braidRuntime);
-        this.dataLoaderRegistryFactory = requireNonNull(dataLoaderRegistryFactory);
-        this.factory = requireNonNull(factory);
+        this.graphQL = requireNonNull(graphQL);
     }
 
     public static BraidBuilder builder() {
@@ -69,36 +63,36 @@ public final class Braid {
     }
 
     /**
-     * Builds a new GraphQL instance to run queries. Note that a new instance should be created for each new query.
+     * Gets a GraphQL instance to run queries. The instance can be used for any number of queries, including
+     * concurrently, each query gets its own data loaders (and so its own data loader caches).
+     * <p>This is cheap, all instances share the same underlying {@link GraphQL} and data loaders are only created when
+     * first used by a query.
      *
      * @return a new {@link BraidGraphQL} instance
      */
     @Nonnull
     public BraidGraphQL newGraphQL() {
-        return new BraidGraphQL(
-                () -> dataLoaderRegistryFactory.apply(braidSchema),
-                factory.apply(braidSchema, braidRuntime));
+        return new BraidGraphQL(braidSchema, graphQL);
     }
 
     public static class BraidGraphQL {
-        private final DataLoaderRegistry dlr;
-        private final Function<DataLoaderRegistry, GraphQL> graphQLFactory;
+        private final BraidSchema braidSchema;
+        private final GraphQL graphQL;
 
-        private BraidGraphQL(Supplier<DataLoaderRegistry> dlr, Function<DataLoaderRegistry, GraphQL> graphQLFactory) {
-            this.dlr = requireNonNull(dlr.get());
-            this.graphQLFactory = requireNonNull(graphQLFactory);
+        private BraidGraphQL(BraidSchema braidSchema, GraphQL graphQL) {
+            this.braidSchema = requireNonNull(braidSchema);
+            this.graphQL = requireNonNull(graphQL);
         }
 
         /**
-         * Executes a GraphQL query asynchronously from the {@link ExecutionInput}
+         * Executes a GraphQL query asynchronously from the {@link ExecutionInput}, with its own data loaders
          *
          * @param executionInput {@link ExecutionInput}
          * @return a promise to an {@link ExecutionResult} which can include errors
          */
         @Nonnull
         public CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput) {
-            final GraphQL graphQL = this.graphQLFactory.apply(dlr);
-
+            final DataLoaderRegistry dlr = new LazyDataLoaderRegistry(braidSchema);
             final ExecutionInput newInput = executionInput
                     .transform(builder -> builder.context(new MutableBraidContext<>(dlr, executionInput.getContext())));
 
@@ -122,6 +116,7 @@ public final class Braid {
 
         private List<Instrumentation> instrumentations = new LinkedList<>();
         private PreparsedDocumentProvider preparsedDocumentProvider = new NoOpPreparsedDocumentProvider();
+        private DataLoaderDispatchWindow dataLoaderDispatchWindow = null;
 
         /**
          * Adds a single schema source for Braid to handle
@@ -263,6 +258,20 @@ public final class Braid {
             return this;
         }
 
+        /**
+         * Holds the dispatch of data loaders for a short window so that loads from sibling branches are coalesced into
+         * fewer, fuller batches.
+         * <p>This is <strong>optional</strong> and data loaders are dispatched as soon as possible by default
+         *
+         * @param dataLoaderDispatchWindow the dispatch window to use
+         * @return {@code this} builder
+         * @see DataLoaderDispatchWindow
+         */
+        public BraidBuilder dataLoaderDispatchWindow(DataLoaderDispatchWindow dataLoaderDispatchWindow) {
+            this.dataLoaderDispatchWindow = requireNonNull(dataLoaderDispatchWindow);
+            return this;
+        }
+
         /**
          * Builds a new Braid instance, ready to create new {@link BraidGraphQL} instances
          *
@@ -273,11 +282,7 @@ public final class Braid {
             final BraidSchema braidSchema = newBraidSchema();
             final BraidRuntime braidRuntime = newBraidRuntime();
 
-            return new Braid(
-                    braidSchema,
-                    braidRuntime,
-                    dataLoaderRegistryFactory(),
-                    (schema, runtime) -> dataLoaderRegistry -> newGraphQL(runtime, schema.getSchema(), dataLoaderRegistry));
+            return new Braid(braidSchema, newGraphQL(braidRuntime, braidSchema.getSchema()));
         }
 
         private BraidRuntime newBraidRuntime() {
@@ -287,7 +292,8 @@ public final class Braid {
                     Optional.ofNullable(mutationExecutionStrategy).orElse(executionStrategy),
                     Optional.ofNullable(subscriptionExecutionStrategy).orElse(executionStrategy),
                     preparsedDocumentProvider,
-                    instrumentations);
+                    instrumentations,
+                    dataLoaderDispatchWindow);
         }
 
         private ExecutionStrategy getQueryExecutionStrategy() {
@@ -307,13 +313,13 @@ public final class Braid {
         }
     }
 
-    private static GraphQL newGraphQL(BraidRuntime runtime, GraphQLSchema schema, DataLoaderRegistry dlr) {
+    private static GraphQL newGraphQL(BraidRuntime runtime, GraphQLSchema schema) {
         requireNonNull(schema);
         final GraphQL.Builder graphQlBuilder = new GraphQL.Builder(schema)
                 .executionIdProvider(runtime.executionIdProvider)
                 .queryExecutionStrategy(runtime.queryExecutionStrategy)
                 .preparsedDocumentProvider(runtime.preparsedDocumentProvider)
-                .instrumentation(chainInstrumenationsAndAddDataLoaderDispatcher(runtime.instrumentations, dlr));
+                .instrumentation(chainInstrumenationsAndAddDataLoaderDispatcher(runtime));
 
         runtime.getMutationExecutionStrategy().ifPresent(graphQlBuilder::mutationExecutionStrategy);
         runtime.getSubscriptionExecutionStrategy().ifPresent(graphQlBuilder::subscriptionExecutionStrategy);
@@ -321,24 +327,13 @@ public final class Braid {
         return graphQlBuilder.build();
     }
 
-    private static ChainedInstrumentation chainInstrumenationsAndAddDataLoaderDispatcher(
-            List<Instrumentation> instrumentations, DataLoaderRegistry dlr) {
+    private static ChainedInstrumentation chainInstrumenationsAndAddDataLoaderDispatcher(BraidRuntime runtime) {
         return new ChainedInstrumentation(concat(
-                instrumentations,
-                asList(new LazyRecursiveDataLoaderDispatcherInstrumentation(dlr), new MutableBraidContextInstrumentation())));
-    }
-
-    private static Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory() {
-        return schema -> {
-            DataLoaderRegistry registry = new DataLoaderRegistry();
-            schema.getBatchLoaders().forEach((key, loader) -> registry.register(key, newDataLoader(loader)));
-            return registry;
-        };
-    }
-
-    @SuppressWarnings("unchecked")
-    private static DataLoader newDataLoader(BatchLoader loader) {
-        return new DataLoader(loader);
+                runtime.instrumentations,
+                asList(new LazyRecursiveDataLoaderDispatcherInstrumentation(
+                                executionContext -> BraidObjects.<BraidContext<?>>cast(executionContext.getContext()).getDataLoaderRegistry(),
+                                runtime.dataLoaderDispatchWindow),
+                        new MutableBraidContextInstrumentation())));
     }
 
     private static final class BraidRuntime {
@@ -350,18 +345,22 @@ public final class Braid {
 
         private List<Instrumentation> instrumentations = new LinkedList<>();
 
+        private final DataLoaderDispatchWindow dataLoaderDispatchWindow;
+
         private BraidRuntime(ExecutionIdProvider executionIdProvider,
                              ExecutionStrategy queryExecutionStrategy,
                              ExecutionStrategy mutationExecutionStrategy, // nullable
                              ExecutionStrategy subscriptionExecutionStrategy, // nullable
                              PreparsedDocumentProvider preparsedDocumentProvider,
-                             List<Instrumentation> instrumentations) {
+                             List<Instrumentation> instrumentations,
+                             DataLoaderDispatchWindow dataLoaderDispatchWindow) { // nullable
             this.executionIdProvider = requireNonNull(executionIdProvider);
             this.queryExecutionStrategy = requireNonNull(queryExecutionStrategy);
             this.mutationExecutionStrategy = mutationExecutionStrategy;
             this.subscriptionExecutionStrategy = subscriptionExecutionStrategy;
             this.preparsedDocumentProvider = requireNonNull(preparsedDocumentProvider);
             this.instrumentations = requireNonNull(instrumentations);
+            this.dataLoaderDispatchWindow = dataLoaderDispatchWindow;
         }
 
         public Optional<ExecutionStrategy> getMutationExecutionStrategy() {
@@ -47,10 +47,12 @@ final class BraidSchema {
 
     private final GraphQLSchema schema;
     private final Map<String, BatchLoader> batchLoaders;
+    private final Map<String, Integer> maxBatchSizes;
 
-    private BraidSchema(GraphQLSchema schema, Map<String, BatchLoader> batchLoaders) {
+    private BraidSchema(GraphQLSchema schema, Map<String, BatchLoader> batchLoaders, Map<String, Integer> maxBatchSizes) {
         this.schema = requireNonNull(schema);
         this.batchLoaders = requireNonNull(batchLoaders);
+        this.maxBatchSizes = requireNonNull(maxBatchSizes);
     }
 
 
@@ -71,20 +73,24 @@ final class BraidSchema {
                 findMutationType(braidTypeRegistry)
                         .orElseGet(() -> createDefaultMutationTypeDefinition(braidTypeRegistry));
 
-        final Map<String, BatchLoader> batchLoaders =
-                addDataSources(dataSourceTypes, braidTypeRegistry, runtimeWiringBuilder, queryObjectTypeDefinition, mutationObjectTypeDefinition);
+        final Map<String, BatchLoader> batchLoaders = new HashMap<>();
+        final Map<String, Integer> maxBatchSizes = new HashMap<>();
+        addDataSources(dataSourceTypes, braidTypeRegistry, runtimeWiringBuilder, queryObjectTypeDefinition,
+                mutationObjectTypeDefinition, batchLoaders, maxBatchSizes);
 
         final GraphQLSchema graphQLSchema = new SchemaGenerator()
                 .makeExecutableSchema(braidTypeRegistry, runtimeWiringBuilder.build());
 
-        return new BraidSchema(graphQLSchema, batchLoaders);
+        return new BraidSchema(graphQLSchema, batchLoaders, maxBatchSizes);
     }
 
-    private static Map<String, BatchLoader> addDataSources(Map<SchemaNamespace, BraidSchemaSource> dataSources,
-                                                           TypeDefinitionRegistry registry,
-                                                           RuntimeWiring.Builder runtimeWiringBuilder,
-                                                           ObjectTypeDefinition queryObjectTypeDefinition,
-                                                           ObjectTypeDefinition mutationObjectTypeDefinition) {
+    private static void addDataSources(Map<SchemaNamespace, BraidSchemaSource> dataSources,
+                                       TypeDefinitionRegistry registry,
+                                       RuntimeWiring.Builder runtimeWiringBuilder,
+                                       ObjectTypeDefinition queryObjectTypeDefinition,
+                                       ObjectTypeDefinition mutationObjectTypeDefinition,
+                                       Map<String, BatchLoader> loaders,
+                                       Map<String, Integer> maxBatchSizes) {
         addAllNonOperationTypes(dataSources, registry, runtimeWiringBuilder);
 
         final List<FieldDataLoaderRegistration> linkedTypesBatchLoaders = linkTypes(dataSources,
@@ -96,8 +102,6 @@ final class BraidSchema {
         final List<FieldDataLoaderRegistration> mutationFieldsBatchLoaders =
                 addSchemaSourcesTopLevelFieldsToOperation(dataSources, mutationObjectTypeDefinition, BraidSchemaSource::getMutationType);
 
-        Map<String, BatchLoader> loaders = new HashMap<>();
-
         concat(linkedTypesBatchLoaders.stream(),
                 concat(queryFieldsBatchLoaders.stream(),
                         mutationFieldsBatchLoaders.stream())).forEach(r -> {
@@ -105,18 +109,35 @@ final class BraidSchema {
             BatchLoader linkBatchLoader = loaders.get(key);
             if (linkBatchLoader != null) {
                 loaders.put(key + "-link", linkBatchLoader);
+                Optional.ofNullable(maxBatchSizes.remove(key)).ifPresent(size -> maxBatchSizes.put(key + "-link", size));
             }
 
             runtimeWiringBuilder.type(r.type, wiring -> wiring.dataFetcher(r.field, new BraidDataFetcher(key)));
             loaders.put(key, r.loader);
+            r.maxBatchSize.ifPresent(size -> maxBatchSizes.put(key, size));
         });
-        return loaders;
     }
 
     Map<String, BatchLoader> getBatchLoaders() {
         return Collections.unmodifiableMap(batchLoaders);
     }
 
+    /**
+     * @param key the key of the batch loader, as in {@link #getBatchLoaders()}
+     * @return the batch loader, {@code null} if none exists for that key
+     */
+    BatchLoader getBatchLoader(String key) {
+        return batchLoaders.get(key);
+    }
+
+    /**
+     * @param key the key of the batch loader, as in {@link #getBatchLoaders()}
+     * @return the maximum batch size of the data loaders using that batch loader
+     */
+    Optional<Integer> getMaxBatchSize(String key) {
+        return Optional.ofNullable(maxBatchSizes.get(key));
+    }
+
     public GraphQLSchema getSchema() {
         return schema;
     }
@@ -221,7 +242,8 @@ final class BraidSchema {
         BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> batchLoader =
                 newBatchLoader(schemaSource, null);
 
-        return new FieldDataLoaderRegistration(typeName, mutationField.getName(), batchLoader);
+        return new FieldDataLoaderRegistration(typeName, mutationField.getName(), batchLoader,
+                schemaSource.getMaxBatchSize());
     }
 
     private static List<FieldDataLoaderRegistration> linkTypes(Map<SchemaNamespace, BraidSchemaSource> sources,
@@ -285,12 +307,17 @@ final class BraidSchema {
                 fieldDataLoaderRegistrations.add(new FieldDataLoaderRegistration(
                         link.getSourceType(),
                         link.getSourceField(),
-                        newBatchLoader(targetSource.schemaSource, link)));
+                        newBatchLoader(targetSource.schemaSource, link),
+                        getMaxBatchSize(link, targetSource.schemaSource)));
             }
         }
         return fieldDataLoaderRegistrations;
     }
 
+    private static Optional<Integer> getMaxBatchSize(Link link, SchemaSource targetSource) {
+        return link.getMaxBatchSize().isPresent() ? link.getMaxBatchSize() : targetSource.getMaxBatchSize();
+    }
+
     private static boolean isListType(Type type) {
         return type instanceof ListType ||
                 (type instanceof NonNullType && ((NonNullType) type).getType() instanceof ListType);
@@ -321,7 +348,8 @@ final class BraidSchema {
 
     private static BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource, Link link) {
         // We use DataFetchingEnvironment as the key in the BatchLoader because different fetches of the object may
-        // request different fields. Someday we may smartly combine them into one somehow, but that day isn't today.
+        // request different fields. Environments fetching the same field with the same arguments are combined into one
+        // remote field by the batch loader itself (see QueryExecutor).
         return schemaSource.newBatchLoader(schemaSource, link);
     }
 
@@ -393,12 +421,15 @@ final class BraidSchema {
         private final String type;
         private final String field;
         private final BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader;
+        private final Optional<Integer> maxBatchSize;
 
         private FieldDataLoaderRegistration(String type, String field,
-                                            BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader) {
+                                            BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader,
+                                            Optional<Integer> maxBatchSize) {
             this.type = type;
             this.field = field;
             this.loader = loader;
+            this.maxBatchSize = maxBatchSize;
         }
     }
 }
@@ -0,0 +1,50 @@
+package com.atlassian.braid;
+
+import graphql.execution.instrumentation.dataloader.TrackingDataLoaderRegistry;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+
+import java.util.Optional;
+
+import static com.atlassian.braid.java.util.BraidObjects.cast;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The per query execution registry of data loaders, data loaders are only created when first used by the query.
+ * <p>Note that {@link #getKeys()} only returns the keys of data loaders already created.
+ */
+final class LazyDataLoaderRegistry extends TrackingDataLoaderRegistry {
+
+    private final BraidSchema braidSchema;
+
+    LazyDataLoaderRegistry(BraidSchema braidSchema) {
+        this.braidSchema = requireNonNull(braidSchema);
+    }
+
+    @Override
+    public <K, V> DataLoader<K, V> getDataLoader(String key) {
+        final DataLoader<K, V> dataLoader = super.getDataLoader(key);
+        if (dataLoader != null) {
+            return dataLoader;
+        }
+
+        final BatchLoader<K, V> batchLoader = cast(braidSchema.getBatchLoader(key));
+        return batchLoader == null ? null : getOrCreateDataLoader(key, batchLoader);
+    }
+
+    private synchronized <K, V> DataLoader<K, V> getOrCreateDataLoader(String key, BatchLoader<K, V> batchLoader) {
+        DataLoader<K, V> dataLoader = super.getDataLoader(key);
+        if (dataLoader == null) {
+            dataLoader = newDataLoader(key, batchLoader, newDataLoaderOptions(braidSchema.getMaxBatchSize(key)));
+            register(key, dataLoader);
+        }
+        return dataLoader;
+    }
+
+    private static DataLoaderOptions newDataLoaderOptions(Optional<Integer> maxBatchSize) {
+        final DataLoaderOptions options = DataLoaderOptions.newOptions();
+        maxBatchSize.ifPresent(options::setMaxBatchSize);
+        return options;
+    }
+}
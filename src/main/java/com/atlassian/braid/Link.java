@@ -1,7 +1,11 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.java.util.BraidObjects;
+
+import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.Objects.requireNonNull;
 
@@ -33,12 +37,42 @@ public final class Link {
      */
     private final boolean nullable;
 
-    private Link(LinkSource source, LinkTarget target, LinkArgument argument, boolean replaceFromField, boolean nullable) {
+    /**
+     * Whether fetches of the same target object with different selections should be merged into one remote field
+     */
+    private final boolean mergeSelections;
+
+    /**
+     * The maximum number of link fetches in one batch, overriding the one of the target {@link SchemaSource}
+     */
+    @Nullable
+    private final Integer maxBatchSize;
+
+    /**
+     * The cache of linked objects shared across requests, this is runtime state rather than configuration and so
+     * isn't part of the equality of links
+     */
+    @Nullable
+    private final LinkResultCache resultCache;
+
+    /**
+     * The partition key of the contexts sharing the entries of the result cache, set along with it
+     */
+    @Nullable
+    private final Function<Object, ?> resultCachePartitionKey;
+
+    private Link(LinkSource source, LinkTarget target, LinkArgument argument, boolean replaceFromField, boolean nullable,
+                 boolean mergeSelections, @Nullable Integer maxBatchSize, @Nullable LinkResultCache resultCache,
+                 @Nullable Function<Object, ?> resultCachePartitionKey) {
         this.source = requireNonNull(source);
         this.target = requireNonNull(target);
         this.argument = requireNonNull(argument);
         this.replaceFromField = replaceFromField;
         this.nullable = nullable;
+        this.mergeSelections = mergeSelections;
+        this.maxBatchSize = maxBatchSize;
+        this.resultCache = resultCache;
+        this.resultCachePartitionKey = resultCachePartitionKey;
     }
 
     public static LinkBuilder from(SchemaNamespace namespace, String type, String field) {
@@ -122,6 +156,40 @@ public final class Link {
         return nullable;
     }
 
+    /**
+     * @return whether fetches of the same target object (i.e. with the same id) within a batch, but with different
+     * selections, are merged into one remote field selecting the union of the fields. Fetches whose selections can't be
+     * merged safely (conflicting fields, fragments or variables) are still queried separately.
+     */
+    public boolean isMergeSelections() {
+        return mergeSelections;
+    }
+
+    /**
+     * @return the maximum number of link fetches in one batch, when present it overrides the
+     * {@link SchemaSource#getMaxBatchSize() maximum batch size} of the target schema source.
+     */
+    public Optional<Integer> getMaxBatchSize() {
+        return Optional.ofNullable(maxBatchSize);
+    }
+
+    /**
+     * @return the cache, shared across requests, in which linked objects are looked up before querying the target
+     * schema source
+     * @see #getResultCachePartitionKey()
+     */
+    public Optional<LinkResultCache> getResultCache() {
+        return Optional.ofNullable(resultCache);
+    }
+
+    /**
+     * @return the partition key of a GraphQL execution context, linked objects cached for a context are only ever
+     * served to contexts with an equal partition key. Present whenever the {@link #getResultCache() result cache} is.
+     */
+    public Optional<Function<Object, ?>> getResultCachePartitionKey() {
+        return Optional.ofNullable(resultCachePartitionKey);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -131,7 +199,9 @@ public final class Link {
                 Objects.equals(target, link.target) &&
                 Objects.equals(argument, link.argument) &&
                 Objects.equals(replaceFromField, link.replaceFromField) &&
-                Objects.equals(nullable, link.nullable);
+                Objects.equals(nullable, link.nullable) &&
+                Objects.equals(mergeSelections, link.mergeSelections) &&
+                Objects.equals(maxBatchSize, link.maxBatchSize);
     }
 
     @Override
@@ -147,6 +217,8 @@ public final class Link {
                 ", argument=" + argument +
                 ", replaceFromField=" + replaceFromField +
                 ", nullable=" + nullable +
+                ", mergeSelections=" + mergeSelections +
+                ", maxBatchSize=" + maxBatchSize +
                 '}';
     }
 
@@ -156,6 +228,10 @@ public final class Link {
         private LinkArgument argument = new LinkArgument("id");
         private boolean replaceFromField = false;
         private boolean nullable = false;
+        private boolean mergeSelections = false;
+        private Integer maxBatchSize = null;
+        private LinkResultCache resultCache = null;
+        private Function<Object, ?> resultCachePartitionKey = null;
 
         LinkBuilder(LinkSource source) {
             this.source = requireNonNull(source);
@@ -185,13 +261,45 @@ public final class Link {
         }
 
         public Link build() {
-            return new Link(source, target, argument, replaceFromField, nullable);
+            return new Link(source, target, argument, replaceFromField, nullable, mergeSelections, maxBatchSize,
+                    resultCache, resultCachePartitionKey);
         }
 
         public LinkBuilder setNullable(boolean nullable) {
             this.nullable = nullable;
             return this;
         }
+
+        public LinkBuilder setMergeSelections(boolean mergeSelections) {
+            this.mergeSelections = mergeSelections;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize the maximum number of linked fields loaded in one batch, larger batches are split
+         * @throws IllegalArgumentException if the size isn't positive
+         */
+        public LinkBuilder setMaxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param resultCache  the cache of linked objects, shared across requests
+         * @param partitionKey the partition key of a GraphQL execution context, linked objects cached for a context are
+         *                     only served to contexts with an equal partition key. It must capture anything from the
+         *                     context the linked objects depend on, e.g. the identity of the user they are queried on
+         *                     behalf of
+         * @param <C>          the type of the GraphQL execution context
+         */
+        public <C> LinkBuilder setResultCache(LinkResultCache resultCache, Function<C, ?> partitionKey) {
+            this.resultCache = requireNonNull(resultCache);
+            this.resultCachePartitionKey = BraidObjects.cast(requireNonNull(partitionKey));
+            return this;
+        }
     }
 
     private static class LinkSource {
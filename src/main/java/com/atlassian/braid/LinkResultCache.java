@@ -0,0 +1,211 @@
+package com.atlassian.braid;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A cache of linked objects, shared across requests, see
+ * {@link Link.LinkBuilder#setResultCache(LinkResultCache, java.util.function.Function)}.
+ * <p>Entries are keyed by the partition key of the context, the target id <em>and</em> the (trimmed) selection of the
+ * link field, so that an object cached for one user, or one selection, is never returned for another one. The same
+ * selection made from different queries shares the same entries. Results with errors, results of fields using
+ * variables and {@code null} results are never cached.
+ * <p>The cache is bounded by the total weight of its entries (by default each entry weighs {@code 1}), the least
+ * recently used entries are evicted first. Entries expire a fixed time after they were written.
+ * <p>A cache instance can be shared by several links targeting the same type.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class LinkResultCache {
+
+    private final long maximumWeight;
+    private final long expireAfterWriteNanos;
+    private final ToIntFunction<Object> weigher;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    private LinkResultCache(long maximumWeight, Duration expireAfterWrite, ToIntFunction<Object> weigher,
+                            LongSupplier ticker) {
+        this.maximumWeight = maximumWeight;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.weigher = requireNonNull(weigher);
+        this.ticker = requireNonNull(ticker);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the cached value, or {@code null} if there is none or it has expired
+     */
+    public synchronized Object get(Object key) {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - ticker.getAsLong() > 0) {
+            hitCount++;
+            return entry.value;
+        }
+        if (entry != null) {
+            remove(key, entry);
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Caches the value, unless it alone weighs more than the maximum weight of the cache, evicting the least recently
+     * used entries if needed
+     */
+    public synchronized void put(Object key, Object value) {
+        final int entryWeight = weigher.applyAsInt(requireNonNull(value));
+        final Entry previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        if (entryWeight > maximumWeight) {
+            return;
+        }
+
+        entries.put(key, new Entry(value, entryWeight, ticker.getAsLong() + expireAfterWriteNanos));
+        weight += entryWeight;
+        evict();
+    }
+
+    private void evict() {
+        final long now = ticker.getAsLong();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && weight > maximumWeight) {
+            final Entry entry = iterator.next();
+            iterator.remove();
+            weight -= entry.weight;
+            if (entry.expiresAt - now > 0) {
+                evictionCount++;
+            }
+        }
+    }
+
+    private void remove(Object key, Entry entry) {
+        entries.remove(key);
+        weight -= entry.weight;
+    }
+
+    /**
+     * Removes all the entries of the cache, statistics are kept
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the number of entries in the cache, including those expired but not yet removed
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the entries in the cache
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of live entries evicted to keep the cache within its maximum weight
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LinkResultCache{" +
+                "size=" + entries.size() +
+                ", weight=" + weight +
+                ", maximumWeight=" + maximumWeight +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final int weight;
+        private final long expiresAt;
+
+        private Entry(Object value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static final class Builder {
+        private long maximumWeight = 1000;
+        private Duration expireAfterWrite = Duration.ofMinutes(1);
+        private ToIntFunction<Object> weigher = __ -> 1;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maximumSize the maximum number of entries in the cache
+         */
+        public Builder maximumSize(long maximumSize) {
+            return maximumWeight(maximumSize, __ -> 1);
+        }
+
+        /**
+         * @param maximumWeight the maximum total weight of the entries in the cache
+         * @param weigher       computes the weight of a cached value, i.e. a linked object as returned by the target
+         *                      schema source
+         */
+        public Builder maximumWeight(long maximumWeight, ToIntFunction<Object> weigher) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight must not be negative: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            this.weigher = requireNonNull(weigher);
+            return this;
+        }
+
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            if (expireAfterWrite.isNegative()) {
+                throw new IllegalArgumentException("expireAfterWrite must not be negative: " + expireAfterWrite);
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        Builder ticker(LongSupplier ticker) {
+            this.ticker = requireNonNull(ticker);
+            return this;
+        }
+
+        public LinkResultCache build() {
+            return new LinkResultCache(maximumWeight, expireAfterWrite, weigher, ticker);
+        }
+    }
+}
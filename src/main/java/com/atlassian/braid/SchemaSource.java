@@ -3,6 +3,7 @@ package com.atlassian.braid;
 import graphql.schema.idl.TypeDefinitionRegistry;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * A data source that contains a schema to be merged via {@link BraidSchema}
@@ -32,4 +33,13 @@ public interface SchemaSource extends BatchLoaderFactory {
      * @return a list of links that connect fields in this data source to other data sources
      */
     List<Link> getLinks();
+
+    /**
+     * @return the maximum number of fields fetched from this data source in one batch, larger batches are split and
+     * fetched in parallel. By default batches aren't limited in size.
+     * @see Link#getMaxBatchSize()
+     */
+    default Optional<Integer> getMaxBatchSize() {
+        return Optional.empty();
+    }
 }
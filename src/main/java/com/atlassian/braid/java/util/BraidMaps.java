@@ -1,8 +1,11 @@
 package com.atlassian.braid.java.util;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 
 /**
  * Utility class to help working with maps.
@@ -21,4 +24,64 @@ public final class BraidMaps {
         final Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
         return iterator.hasNext() ? iterator.next() : null;
     }
+
+    /**
+     * Creates a new thread safe map holding at most {@code maxSize} entries, the least recently accessed entries are
+     * evicted first.
+     *
+     * @param maxSize the maximum number of entries in the map
+     * @param <K>     the type of keys
+     * @param <V>     the type of values
+     * @return a new bounded map
+     */
+    public static <K, V> Map<K, V> newBoundedMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Creates a new thread safe map whose entries weigh at most {@code maxWeight} in total, the least recently accessed
+     * entries are evicted first. Entries must be added with {@link Map#put(Object, Object)}.
+     *
+     * @param maxWeight the maximum total weight of the values in the map
+     * @param weigher   the weight of a value, which must not change while the value is in the map
+     * @param <K>       the type of keys
+     * @param <V>       the type of values
+     * @return a new bounded map
+     */
+    public static <K, V> Map<K, V> newWeightBoundedMap(long maxWeight, ToIntFunction<? super V> weigher) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private long weight = 0;
+
+            @Override
+            public V put(K key, V value) {
+                final V previous = super.put(key, value);
+                weight += weigher.applyAsInt(value) - (previous == null ? 0 : weigher.applyAsInt(previous));
+                for (Iterator<V> eldest = values().iterator(); weight > maxWeight && eldest.hasNext(); ) {
+                    weight -= weigher.applyAsInt(eldest.next());
+                    eldest.remove();
+                }
+                return previous;
+            }
+
+            @Override
+            public V remove(Object key) {
+                final V removed = super.remove(key);
+                if (removed != null) {
+                    weight -= weigher.applyAsInt(removed);
+                }
+                return removed;
+            }
+
+            @Override
+            public void clear() {
+                super.clear();
+                weight = 0;
+            }
+        });
+    }
 }
@@ -3,11 +3,11 @@ package com.atlassian.braid.mapper;
 import com.atlassian.braid.java.util.BraidObjects;
 import com.atlassian.braid.java.util.BraidMaps;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 final class CopyListOperation implements MapperOperation {
 
@@ -30,8 +30,10 @@ final class CopyListOperation implements MapperOperation {
     }
 
     private List<Map<String, Object>> mapList(List<Map<String, Object>> input) {
-        return input.stream()
-                .map(mapper)
-                .collect(toList());
+        final List<Map<String, Object>> output = new ArrayList<>(input.size());
+        for (Map<String, Object> item : input) {
+            output.add(mapper.apply(item));
+        }
+        return output;
     }
 }
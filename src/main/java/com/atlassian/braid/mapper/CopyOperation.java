@@ -1,6 +1,7 @@
 package com.atlassian.braid.mapper;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -8,7 +9,7 @@ import static java.util.Objects.requireNonNull;
 
 final class CopyOperation<T, R> implements MapperOperation {
 
-    private final String sourceKey;
+    private final Function<Map<String, Object>, Optional<T>> sourceGetter;
     private final String targetKey;
     private final Supplier<R> defaultValue;
     private final Function<T, R> transform;
@@ -17,7 +18,7 @@ final class CopyOperation<T, R> implements MapperOperation {
                   String targetKey,
                   Supplier<R> defaultValue,
                   Function<T, R> transform) {
-        this.sourceKey = requireNonNull(sourceKey);
+        this.sourceGetter = MapperMaps.getter(requireNonNull(sourceKey));
         this.targetKey = requireNonNull(targetKey);
         this.defaultValue = requireNonNull(defaultValue);
         this.transform = requireNonNull(transform);
@@ -25,7 +26,7 @@ final class CopyOperation<T, R> implements MapperOperation {
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        final R value = MapperMaps.<T>get(input, sourceKey)
+        final R value = sourceGetter.apply(input)
                 .map(transform)
                 .orElseGet(defaultValue);
 
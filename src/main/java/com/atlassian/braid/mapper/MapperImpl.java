@@ -1,13 +1,18 @@
 package com.atlassian.braid.mapper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import static com.atlassian.braid.mapper.MapperOperations.composed;
+import static com.atlassian.braid.mapper.MapperOperations.flatten;
 import static com.atlassian.braid.mapper.MapperOperations.noop;
+import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -15,20 +20,27 @@ import static java.util.Objects.requireNonNull;
  */
 final class MapperImpl implements Mapper {
 
-    private final MapperOperation operation;
+    // the flattened operations, so that applying the mapper is a single pass over them
+    private final MapperOperation[] operations;
+
+    // most operations put (at most) one entry in the output
+    private final int outputCapacity;
 
     MapperImpl() {
         this(noop());
     }
 
     MapperImpl(MapperOperation operation) {
-        this.operation = requireNonNull(operation);
+        this.operations = flatten(requireNonNull(operation));
+        this.outputCapacity = (int) (operations.length / 0.75f) + 1;
     }
 
     @Override
     public final Map<String, Object> apply(Map<String, Object> input) {
-        final Map<String, Object> output = new HashMap<>();
-        operation.accept(input, output);
+        final Map<String, Object> output = new HashMap<>(outputCapacity);
+        for (MapperOperation operation : operations) {
+            operation.accept(input, output);
+        }
         return output;
     }
 
@@ -63,6 +75,8 @@ final class MapperImpl implements Mapper {
     }
 
     private MapperImpl newMapper(MapperOperation afterOperation) {
-        return new MapperImpl(this.operation.andThen(afterOperation));
+        final List<MapperOperation> newOperations = new ArrayList<>(asList(operations));
+        newOperations.add(afterOperation);
+        return new MapperImpl(composed(newOperations));
     }
 }
@@ -8,24 +8,25 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static com.atlassian.braid.java.util.BraidLists.concat;
 import static com.atlassian.braid.java.util.BraidObjects.cast;
 
 /**
- * Useful class to work with maps, and notably leverage SpringExpressions if present
+ * Useful class to work with maps, simple paths are evaluated natively (see {@link MapperPath}) while other expressions
+ * leverage SpringExpressions if present
  */
 final class MapperMaps {
 
-    private static BiFunction<Map<String, Object>, String, Optional<Object>> getFromMap;
+    private static Function<String, Function<Map<String, Object>, Optional<Object>>> newExpressionGetter;
 
     static {
         try {
-            getFromMap = MapperMaps.<SpringExpressions>newInstance("com.atlassian.braid.mapper.SpringExpressions")::get;
-        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+            newExpressionGetter = MapperMaps.<SpringExpressions>newInstance("com.atlassian.braid.mapper.SpringExpressions")::compile;
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException | LinkageError e) {
             LoggerFactory.getLogger(CopyOperation.class).debug("Spring not found, using simple property expressions", e);
-            getFromMap = BraidMaps::get;
+            newExpressionGetter = key -> map -> BraidMaps.get(map, key);
         }
     }
 
@@ -33,7 +34,25 @@ final class MapperMaps {
     }
 
     public static <V> Optional<V> get(Map<String, Object> map, String key) {
-        return getFromMap.apply(map, key).map(BraidObjects::cast);
+        return MapperMaps.<V>getter(key).apply(map);
+    }
+
+    /**
+     * Builds a function getting values at the given key, or expression, from maps. Prefer this to
+     * {@link #get(Map, String)} when getting values at the same key from many maps as the expression is only parsed
+     * once.
+     *
+     * @param key the key or expression to get the value at
+     * @param <V> the type of values
+     * @return a function to get values from maps
+     */
+    static <V> Function<Map<String, Object>, Optional<V>> getter(String key) {
+        final Optional<MapperPath> path = MapperPath.parse(key);
+        if (path.isPresent()) {
+            final MapperPath mapperPath = path.get();
+            return map -> cast(mapperPath.get(map));
+        }
+        return cast(newExpressionGetter.apply(key));
     }
 
     static Map<String, Object> mergeMaps(Map<String, Object> map1, Map<String, Object> map2) {
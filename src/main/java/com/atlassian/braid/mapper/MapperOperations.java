@@ -1,6 +1,7 @@
 package com.atlassian.braid.mapper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -25,7 +26,34 @@ public final class MapperOperations {
     }
 
     public static MapperOperation composed(List<MapperOperation> operations) {
-        return new ComposedOperation(operations);
+        return new ComposedOperation(flatten(operations));
+    }
+
+    /**
+     * Flattens (nested) composed operations into a single array of operations, leaving out no-op operations
+     *
+     * @param operation the operation to flatten
+     * @return the flat array of operations, to apply in order
+     */
+    static MapperOperation[] flatten(MapperOperation operation) {
+        final List<MapperOperation> operations = new ArrayList<>();
+        addFlattened(operations, operation);
+        return operations.toArray(new MapperOperation[0]);
+    }
+
+    private static MapperOperation[] flatten(List<MapperOperation> operations) {
+        final List<MapperOperation> flattened = new ArrayList<>(operations.size());
+        operations.forEach(operation -> addFlattened(flattened, operation));
+        return flattened.toArray(new MapperOperation[0]);
+    }
+
+    private static void addFlattened(List<MapperOperation> flattened, MapperOperation operation) {
+        if (operation instanceof ComposedOperation) {
+            // composed operations are flat already
+            Collections.addAll(flattened, ((ComposedOperation) operation).operations);
+        } else if (!(operation instanceof NoopOperation)) {
+            flattened.add(operation);
+        }
     }
 
     public static MapperOperation map(String key, Mapper mapper) {
@@ -51,15 +79,17 @@ public final class MapperOperations {
     }
 
     private static class ComposedOperation implements MapperOperation {
-        private final List<MapperOperation> operations;
+        private final MapperOperation[] operations;
 
-        private ComposedOperation(List<MapperOperation> operations) {
-            this.operations = new ArrayList<>(operations);
+        private ComposedOperation(MapperOperation[] operations) {
+            this.operations = operations;
         }
 
         @Override
         public void accept(Map<String, Object> input, Map<String, Object> output) {
-            operations.forEach(op -> op.accept(input, output));
+            for (MapperOperation operation : operations) {
+                operation.accept(input, output);
+            }
         }
     }
 }
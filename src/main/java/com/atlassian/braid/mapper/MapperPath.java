@@ -0,0 +1,144 @@
+package com.atlassian.braid.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A path to a value within nested maps and lists, evaluated without any expression engine. A path is either:
+ * <ul>
+ * <li>a plain key, e.g. {@code foo}, which is looked up as is</li>
+ * <li>a sequence of bracketed keys and indexes, e.g. {@code ['foo']['bar'][0]}, as built by the document mappers or
+ * written in YAML mappers</li>
+ * </ul>
+ * Anything else is a <em>real</em> expression, left to Spring expressions when present.
+ */
+final class MapperPath {
+
+    private final String path;
+
+    // either String keys or Integer indexes
+    private final Object[] segments;
+
+    private MapperPath(String path, List<Object> segments) {
+        this.path = requireNonNull(path);
+        this.segments = segments.toArray();
+    }
+
+    /**
+     * @param key the key or path to parse
+     * @return the parsed path, or empty if the key is an expression that isn't a simple path
+     */
+    static Optional<MapperPath> parse(String key) {
+        final List<Object> segments = new ArrayList<>();
+        if (!key.contains("[")) {
+            segments.add(key);
+            return Optional.of(new MapperPath(key, segments));
+        }
+
+        int i = 0;
+        while (i < key.length()) {
+            if (key.charAt(i) != '[' || i + 1 >= key.length()) {
+                return Optional.empty();
+            }
+            final char first = key.charAt(i + 1);
+            final int end;
+            if (first == '\'' || first == '"') {
+                end = parseQuotedKey(key, i + 2, first, segments);
+            } else if (Character.isDigit(first)) {
+                end = parseIndex(key, i + 1, segments);
+            } else {
+                end = -1;
+            }
+            if (end < 0 || end >= key.length() || key.charAt(end) != ']') {
+                return Optional.empty();
+            }
+            i = end + 1;
+        }
+        return Optional.of(new MapperPath(key, segments));
+    }
+
+    /**
+     * @return the index of the character following the closing quote, or {@code -1} if there is none
+     */
+    private static int parseQuotedKey(String key, int start, char quote, List<Object> segments) {
+        final StringBuilder segment = new StringBuilder();
+        int i = start;
+        while (i < key.length()) {
+            final char c = key.charAt(i);
+            if (c == quote) {
+                // as in Spring expressions, a doubled quote is an escaped quote
+                if (i + 1 < key.length() && key.charAt(i + 1) == quote) {
+                    segment.append(quote);
+                    i += 2;
+                    continue;
+                }
+                segments.add(segment.toString());
+                return i + 1;
+            }
+            segment.append(c);
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the character following the last digit, or {@code -1} if the index is too large
+     */
+    private static int parseIndex(String key, int start, List<Object> segments) {
+        int i = start;
+        while (i < key.length() && Character.isDigit(key.charAt(i))) {
+            i++;
+        }
+        try {
+            segments.add(Integer.valueOf(key.substring(start, i)));
+            return i;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param map the map to get the value from
+     * @return the value at the end of the path, empty if the last map doesn't contain it
+     * @throws MapperException if an intermediate value is missing or can't be navigated through
+     */
+    Optional<Object> get(Map<String, Object> map) {
+        Object value = map;
+        for (Object segment : segments) {
+            value = getSegment(map, value, segment);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    private Object getSegment(Map<String, Object> root, Object value, Object segment) {
+        if (value instanceof Map) {
+            return ((Map) value).get(segment);
+        } else if (value instanceof List && segment instanceof Integer) {
+            final List list = (List) value;
+            final int index = (Integer) segment;
+            if (index >= list.size()) {
+                throw new MapperException("Index %s out of bounds in %s for path: %s", index, root, path);
+            }
+            return list.get(index);
+        } else if (value instanceof Object[] && segment instanceof Integer) {
+            final Object[] array = (Object[]) value;
+            final int index = (Integer) segment;
+            if (index >= array.length) {
+                throw new MapperException("Index %s out of bounds in %s for path: %s", index, root, path);
+            }
+            return array[index];
+        } else {
+            throw new MapperException("Exception getting value in %s for path: %s, can't get %s in %s",
+                    root, path, segment, value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -5,6 +5,7 @@ import com.atlassian.braid.yaml.BraidYaml;
 import java.io.Reader;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -46,6 +47,7 @@ public final class Mappers {
      * @see Mapper#map(String, Predicate, Function)
      */
     public static Predicate<MapperInputOutput> inputContains(String key) {
-        return inout -> MapperMaps.get(inout.getInput(), key).isPresent();
+        final Function<Map<String, Object>, Optional<Object>> getter = MapperMaps.getter(key);
+        return inout -> getter.apply(inout.getInput()).isPresent();
     }
 }
@@ -1,24 +1,48 @@
 package com.atlassian.braid.mapper;
 
 import com.atlassian.braid.java.util.BraidObjects;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 final class SpringExpressions {
     private static final org.springframework.expression.ExpressionParser PARSER = new SpelExpressionParser();
 
     // not static on purpose
     <T> Optional<T> get(Map<String, Object> map, String key) {
+        return this.<T>compile(key).apply(map);
+    }
+
+    /**
+     * Parses the expression for the key once, so that getting values doesn't parse it over and over again
+     *
+     * @param key the key or expression to get values at
+     * @param <T> the type of values
+     * @return a function getting the value at the key from a map
+     */
+    // not static on purpose
+    <T> Function<Map<String, Object>, Optional<T>> compile(String key) {
         final String sourcePath = !key.contains("[") ? "['" + key + "']" : key;
-        return Optional.ofNullable(maybeGetValue(map, sourcePath)).map(BraidObjects::cast);
+        final Expression expression;
+        try {
+            expression = PARSER.parseExpression(sourcePath);
+        } catch (ParseException e) {
+            // invalid expressions only fail when used
+            return __ -> {
+                throw e;
+            };
+        }
+        return map -> Optional.ofNullable(maybeGetValue(expression, map, sourcePath)).map(BraidObjects::cast);
     }
 
-    private static Object maybeGetValue(Object source, String sourcePath) {
+    private static Object maybeGetValue(Expression expression, Object source, String sourcePath) {
         try {
-            return PARSER.parseExpression(sourcePath).getValue(source);
+            return expression.getValue(source);
         } catch (SpelEvaluationException e) {
             throw new MapperException(e, "Exception getting value in %s for path: %s", source, sourcePath);
         }
@@ -5,8 +5,10 @@ import com.atlassian.braid.SchemaNamespace;
 import com.atlassian.braid.SchemaSource;
 import graphql.schema.idl.TypeDefinitionRegistry;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -16,14 +18,26 @@ public abstract class AbstractSchemaSource implements SchemaSource {
     private final TypeDefinitionRegistry privateSchema;
     private final List<Link> links;
 
+    @Nullable
+    private final Integer maxBatchSize;
+
     public AbstractSchemaSource(SchemaNamespace namespace,
                                 TypeDefinitionRegistry schema,
                                 TypeDefinitionRegistry privateSchema,
                                 List<Link> links) {
+        this(namespace, schema, privateSchema, links, null);
+    }
+
+    public AbstractSchemaSource(SchemaNamespace namespace,
+                                TypeDefinitionRegistry schema,
+                                TypeDefinitionRegistry privateSchema,
+                                List<Link> links,
+                                @Nullable Integer maxBatchSize) {
         this.namespace = requireNonNull(namespace);
         this.schema = requireNonNull(schema);
         this.privateSchema = requireNonNull(privateSchema);
         this.links = requireNonNull(links);
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
@@ -45,4 +59,9 @@ public abstract class AbstractSchemaSource implements SchemaSource {
     public final List<Link> getLinks() {
         return new ArrayList<>(links);
     }
+
+    @Override
+    public Optional<Integer> getMaxBatchSize() {
+        return Optional.ofNullable(maxBatchSize);
+    }
 }
@@ -10,6 +10,7 @@ import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import org.dataloader.BatchLoader;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.function.Function;
 
@@ -34,7 +35,17 @@ final class BaseQueryExecutorSchemaSource<C> extends AbstractSchemaSource implem
                                   List<Link> links,
                                   DocumentMapperFactory documentMapper,
                                   QueryFunction<C> queryFunction) {
-        super(namespace, schema, privateSchema, links);
+        this(namespace, schema, privateSchema, links, documentMapper, queryFunction, null);
+    }
+
+    BaseQueryExecutorSchemaSource(SchemaNamespace namespace,
+                                  TypeDefinitionRegistry schema,
+                                  TypeDefinitionRegistry privateSchema,
+                                  List<Link> links,
+                                  DocumentMapperFactory documentMapper,
+                                  QueryFunction<C> queryFunction,
+                                  @Nullable Integer maxBatchSize) {
+        super(namespace, schema, privateSchema, links, maxBatchSize);
         this.queryExecutor = new QueryExecutor<>(queryFunction);
         this.documentMapper = requireNonNull(documentMapper);
     }
@@ -0,0 +1,196 @@
+package com.atlassian.braid.source;
+
+import graphql.ExecutionInput;
+import graphql.language.Definition;
+import graphql.language.OperationDefinition;
+import graphql.language.OperationDefinition.Operation;
+import graphql.parser.Parser;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.atlassian.braid.java.util.BraidMaps.newBoundedMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GraphQLRemoteRetriever} sharing in-flight remote queries between identical concurrent queries, e.g. from
+ * concurrent requests querying the same data. Queries are identical when they have the same query, operation name,
+ * variables and <em>partition key</em>, derived from the context. The partition key must capture anything from the
+ * context the response depends on, e.g. the identity of the user the query is made on behalf of.
+ * <p>Once a query completes the next identical query goes to the remote service again, nothing is cached. Only query
+ * operations are shared, the type of the operation being parsed from the query, mutations are never shared.
+ * <p>Callers sharing a query share the same response, which must therefore not be modified (Braid doesn't).
+ *
+ * @param <C> the type of the GraphQL execution context
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CoalescingGraphQLRemoteRetriever<C> implements GraphQLRemoteRetriever<C> {
+
+    // the maximum number of distinct queries whose operations are kept, Braid reuses the queries of batches of the
+    // same shape
+    private static final int OPERATION_CACHE_SIZE = 256;
+
+    private final GraphQLRemoteRetriever<C> delegate;
+    private final Function<C, ?> partitionKey;
+
+    private final ConcurrentMap<QueryKey, CompletableFuture<Map<String, Object>>> inFlightQueries =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder coalescedQueryCount = new LongAdder();
+
+    // the type of each operation of a query, by name
+    private final Map<String, Map<String, Operation>> operations = newBoundedMap(OPERATION_CACHE_SIZE);
+
+    /**
+     * @param delegate     the retriever actually querying the remote service
+     * @param partitionKey the partition key of a context, only queries with equal partition keys are shared
+     */
+    public CoalescingGraphQLRemoteRetriever(GraphQLRemoteRetriever<C> delegate, Function<C, ?> partitionKey) {
+        this.delegate = requireNonNull(delegate);
+        this.partitionKey = requireNonNull(partitionKey);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> queryGraphQL(ExecutionInput executionInput, C context) {
+        if (getOperation(executionInput) != Operation.QUERY) {
+            queryCount.increment();
+            return delegate.queryGraphQL(executionInput, context);
+        }
+
+        final QueryKey key = new QueryKey(executionInput, partitionKey.apply(context));
+        final CompletableFuture<Map<String, Object>> query = new CompletableFuture<>();
+        final CompletableFuture<Map<String, Object>> inFlightQuery = inFlightQueries.putIfAbsent(key, query);
+        if (inFlightQuery != null) {
+            coalescedQueryCount.increment();
+            // callers get their own future, so that one completing or cancelling it doesn't affect the others
+            return inFlightQuery.thenApply(Function.identity());
+        }
+
+        queryCount.increment();
+        try {
+            delegate.queryGraphQL(executionInput, context).whenComplete((response, error) -> {
+                inFlightQueries.remove(key, query);
+                if (error != null) {
+                    query.completeExceptionally(error);
+                } else {
+                    query.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightQueries.remove(key, query);
+            query.completeExceptionally(e);
+        }
+        return query.thenApply(Function.identity());
+    }
+
+    /**
+     * @return the type of the operation executed, {@code null} if it can't be told, e.g. for an invalid query
+     */
+    @Nullable
+    private Operation getOperation(ExecutionInput executionInput) {
+        Map<String, Operation> queryOperations = operations.get(executionInput.getQuery());
+        if (queryOperations == null) {
+            // not using computeIfAbsent as we don't want to hold the lock while parsing the query
+            queryOperations = parseOperations(executionInput.getQuery());
+            operations.put(executionInput.getQuery(), queryOperations);
+        }
+        // the operation name is only optional for a query holding a single operation
+        return executionInput.getOperationName() == null && queryOperations.size() == 1 ?
+                queryOperations.values().iterator().next() :
+                queryOperations.get(executionInput.getOperationName());
+    }
+
+    /**
+     * @return the type of each operation of the query by name, {@code null} for an anonymous one. Invalid queries have
+     * no operations, the remote service reports the errors
+     */
+    private static Map<String, Operation> parseOperations(String query) {
+        final Map<String, Operation> operations = new HashMap<>();
+        try {
+            for (Definition definition : new Parser().parseDocument(query).getDefinitions()) {
+                if (definition instanceof OperationDefinition) {
+                    final OperationDefinition operation = (OperationDefinition) definition;
+                    operations.put(operation.getName(), operation.getOperation());
+                }
+            }
+        } catch (RuntimeException e) {
+            operations.clear();
+        }
+        return operations;
+    }
+
+    /**
+     * @return the number of queries sent to the remote service
+     */
+    public long getQueryCount() {
+        return queryCount.sum();
+    }
+
+    /**
+     * @return the number of queries that shared an in-flight query rather than being sent to the remote service
+     */
+    public long getCoalescedQueryCount() {
+        return coalescedQueryCount.sum();
+    }
+
+    /**
+     * @return the number of queries currently in flight
+     */
+    public int getInFlightQueryCount() {
+        return inFlightQueries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingGraphQLRemoteRetriever{" +
+                "delegate=" + delegate +
+                ", queryCount=" + getQueryCount() +
+                ", coalescedQueryCount=" + getCoalescedQueryCount() +
+                '}';
+    }
+
+    private static final class QueryKey {
+        private final String query;
+
+        @Nullable
+        private final String operationName;
+        private final Map<String, Object> variables;
+
+        @Nullable
+        private final Object partitionKey;
+        private final int hashCode;
+
+        private QueryKey(ExecutionInput executionInput, @Nullable Object partitionKey) {
+            this.query = requireNonNull(executionInput.getQuery());
+            this.operationName = executionInput.getOperationName();
+            this.variables = requireNonNull(executionInput.getVariables());
+            this.partitionKey = partitionKey;
+            this.hashCode = Objects.hash(query, operationName, variables, partitionKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            QueryKey that = (QueryKey) o;
+            return hashCode == that.hashCode &&
+                    Objects.equals(query, that.query) &&
+                    Objects.equals(operationName, that.operationName) &&
+                    Objects.equals(variables, that.variables) &&
+                    Objects.equals(partitionKey, that.partitionKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
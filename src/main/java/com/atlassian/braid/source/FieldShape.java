@@ -0,0 +1,206 @@
+package com.atlassian.braid.source;
+
+import com.atlassian.braid.BraidContext;
+import com.atlassian.braid.GraphQLQueryVisitor;
+import graphql.language.Argument;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.Node;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.atlassian.braid.java.util.BraidObjects.cast;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The structural <em>shape</em> of a field being fetched, i.e. everything about a {@link DataFetchingEnvironment} that
+ * affects the query sent to a remote source, apart from the values of variables and link target ids.
+ * <p>Two environments with equal shapes produce the same (trimmed) field selection. Shapes compare the nodes of the
+ * fields (and of what they reference) structurally, printing them for every batch would cost about as much as building
+ * the query in the first place.
+ */
+final class FieldShape {
+
+    private final FieldNodes field;
+    private final String parentType;
+    private final boolean nullSource;
+    private final int hashCode;
+
+    private FieldShape(FieldNodes field, String parentType, boolean nullSource) {
+        this.field = requireNonNull(field);
+        this.parentType = requireNonNull(parentType);
+        this.nullSource = nullSource;
+        this.hashCode = Objects.hash(field, parentType, nullSource);
+    }
+
+    /**
+     * @param environment the environment to get the shape of
+     * @param fieldNodes  the nodes of fields by (identity of) their field node, list items share the same field node so
+     *                    this avoids hashing the same field over and over within a batch
+     * @return the shape of the field being fetched in the environment
+     */
+    static FieldShape of(DataFetchingEnvironment environment, Map<Field, FieldNodes> fieldNodes) {
+        return new FieldShape(
+                fieldNodes.computeIfAbsent(environment.getField(), __ -> FieldNodes.of(environment)),
+                environment.getParentType().getName(),
+                environment.getSource() == null);
+    }
+
+    /**
+     * @return whether the field, or any fragment it references, uses variables. The values of those variables are not
+     * part of the shape.
+     */
+    boolean isUsingVariables() {
+        return field.usingVariables;
+    }
+
+    private static List<FragmentDefinition> getReferencedFragments(DataFetchingEnvironment environment) {
+        final Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        new GraphQLQueryVisitor() {
+            @Override
+            protected void visitFragmentSpread(FragmentSpread node) {
+                fragments.put(node.getName(), environment.getFragmentsByName().get(node.getName()));
+                super.visitFragmentSpread(node);
+            }
+        }.visit(environment.getField());
+        return new ArrayList<>(fragments.values());
+    }
+
+    private static boolean usesVariables(Node node) {
+        if (node instanceof VariableReference) {
+            return true;
+        }
+        for (Node child : getChildren(node)) {
+            if (usesVariables(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The alias of the field is always replaced when querying the remote source, so it isn't part of its shape
+     */
+    private static int hashWithoutAlias(Field field) {
+        return 31 * field.getName().hashCode() + hash(getChildren(field));
+    }
+
+    private static boolean equalWithoutAlias(Field field1, Field field2) {
+        return field1.getName().equals(field2.getName()) && equal(getChildren(field1), getChildren(field2));
+    }
+
+    /**
+     * Only the names of fields and arguments are hashed along with the structure, {@link #equal(Node, Node)} tells the
+     * rest apart
+     */
+    private static int hash(List<Node> nodes) {
+        int hash = 1;
+        for (Node node : nodes) {
+            int nodeHash = node.getClass().getName().hashCode();
+            if (node instanceof Field) {
+                nodeHash = 31 * nodeHash + ((Field) node).getName().hashCode();
+            } else if (node instanceof Argument) {
+                nodeHash = 31 * nodeHash + ((Argument) node).getName().hashCode();
+            }
+            hash = 31 * hash + (31 * nodeHash + hash(getChildren(node)));
+        }
+        return hash;
+    }
+
+    private static boolean equal(List<? extends Node> nodes1, List<? extends Node> nodes2) {
+        if (nodes1.size() != nodes2.size()) {
+            return false;
+        }
+        for (int i = 0; i < nodes1.size(); i++) {
+            if (!equal(nodes1.get(i), nodes2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equal(Node node1, Node node2) {
+        return node1 == node2 || node1.isEqualTo(node2) && equal(getChildren(node1), getChildren(node2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Node> getChildren(Node node) {
+        return node.getChildren();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FieldShape that = (FieldShape) o;
+        return hashCode == that.hashCode &&
+                nullSource == that.nullSource &&
+                Objects.equals(parentType, that.parentType) &&
+                Objects.equals(field, that.field);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * A field, along with its referenced fragments and, if it uses variables, the variable definitions of its operation
+     */
+    static final class FieldNodes {
+        private final Field field;
+        private final List<FragmentDefinition> fragments;
+        private final List<VariableDefinition> variableDefinitions;
+        private final boolean usingVariables;
+        private final int hashCode;
+
+        private FieldNodes(Field field, List<FragmentDefinition> fragments,
+                           List<VariableDefinition> variableDefinitions, boolean usingVariables) {
+            this.field = requireNonNull(field);
+            this.fragments = requireNonNull(fragments);
+            this.variableDefinitions = requireNonNull(variableDefinitions);
+            this.usingVariables = usingVariables;
+            this.hashCode = Objects.hash(
+                    hashWithoutAlias(field), hash(cast(fragments)), hash(cast(variableDefinitions)));
+        }
+
+        private static FieldNodes of(DataFetchingEnvironment environment) {
+            final Field field = environment.getField();
+            final List<FragmentDefinition> fragments = getReferencedFragments(environment);
+            final boolean usingVariables =
+                    usesVariables(field) || fragments.stream().anyMatch(FieldShape::usesVariables);
+
+            // variable definitions give their types to the namespaced variables of the field
+            final List<VariableDefinition> variableDefinitions = usingVariables ?
+                    environment.<BraidContext>getContext().getExecutionContext().getOperationDefinition()
+                            .getVariableDefinitions() :
+                    emptyList();
+            return new FieldNodes(field, fragments, variableDefinitions, usingVariables);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FieldNodes that = (FieldNodes) o;
+            return hashCode == that.hashCode &&
+                    equalWithoutAlias(field, that.field) &&
+                    equal(fragments, that.fragments) &&
+                    equal(variableDefinitions, that.variableDefinitions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
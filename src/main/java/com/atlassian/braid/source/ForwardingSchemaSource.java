@@ -9,6 +9,7 @@ import graphql.schema.idl.TypeDefinitionRegistry;
 import org.dataloader.BatchLoader;
 
 import java.util.List;
+import java.util.Optional;
 
 abstract class ForwardingSchemaSource implements SchemaSource {
     protected abstract SchemaSource getDelegate();
@@ -33,6 +34,11 @@ abstract class ForwardingSchemaSource implements SchemaSource {
         return getDelegate().getLinks();
     }
 
+    @Override
+    public Optional<Integer> getMaxBatchSize() {
+        return getDelegate().getMaxBatchSize();
+    }
+
     @Override
     public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource, Link link) {
         return getDelegate().newBatchLoader(schemaSource, link);
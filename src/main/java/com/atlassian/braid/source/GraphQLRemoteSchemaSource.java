@@ -11,6 +11,7 @@ import graphql.GraphQLError;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.idl.TypeDefinitionRegistry;
 
+import javax.annotation.Nullable;
 import java.io.Reader;
 import java.util.Collections;
 import java.util.List;
@@ -59,13 +60,28 @@ public final class GraphQLRemoteSchemaSource<C> extends ForwardingSchemaSource i
                                      GraphQLRemoteRetriever<C> graphQLRemoteRetriever,
                                      List<Link> links,
                                      DocumentMapperFactory documentMapperFactory) {
+        this(namespace, publicSchema, privateSchema, graphQLRemoteRetriever, links, documentMapperFactory, null);
+    }
+
+    /**
+     * @param maxBatchSize the maximum number of fields queried in one remote query, larger batches are split into
+     *                     several queries. {@code null} for no limit
+     */
+    public GraphQLRemoteSchemaSource(SchemaNamespace namespace,
+                                     TypeDefinitionRegistry publicSchema,
+                                     TypeDefinitionRegistry privateSchema,
+                                     GraphQLRemoteRetriever<C> graphQLRemoteRetriever,
+                                     List<Link> links,
+                                     DocumentMapperFactory documentMapperFactory,
+                                     @Nullable Integer maxBatchSize) {
         this.graphQLRemoteRetriever = requireNonNull(graphQLRemoteRetriever);
         this.delegate = new BaseQueryExecutorSchemaSource<>(namespace,
                 publicSchema,
                 privateSchema,
                 links,
                 documentMapperFactory,
-                this::query);
+                this::query,
+                maxBatchSize);
 
     }
 
@@ -0,0 +1,358 @@
+package com.atlassian.braid.source;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import graphql.ExecutionInput;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link GraphQLRemoteRetriever} posting queries to a remote GraphQL endpoint over HTTP, using
+ * <a href="http://square.github.io/okhttp/">OkHttp</a> and the Jackson streaming API (both optional dependencies of
+ * Braid).
+ * <p>Queries are sent asynchronously, no thread is blocked waiting on the remote service. Connections are pooled and
+ * HTTP/2 is used where both the server and the JVM support it (through ALPN), gzip responses are decompressed
+ * transparently. The query is written straight to the request body and the response body is decoded, as it is read,
+ * into plain maps and lists. Responses with an error status are returned as well, as long as they are GraphQL responses,
+ * i.e. JSON objects with a {@code data} or {@code errors} member.
+ * Variables can be maps, iterables, strings, numbers, booleans and nulls, other values fail the query.
+ * <p>Retrievers created without a client share the same one, and therefore the same connection pool and dispatcher,
+ * timeouts can still be set per retriever.
+ *
+ * @param <C> the type of the GraphQL execution context
+ */
+@SuppressWarnings("WeakerAccess")
+public final class HttpGraphQLRemoteRetriever<C> implements GraphQLRemoteRetriever<C> {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    // OkHttp closes the request body sink itself, once the body is written
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final URL url;
+    private final OkHttpClient client;
+    private final BiConsumer<Request.Builder, C> requestCustomizer;
+
+    private HttpGraphQLRemoteRetriever(URL url, OkHttpClient client, BiConsumer<Request.Builder, C> requestCustomizer) {
+        this.url = requireNonNull(url);
+        this.client = requireNonNull(client);
+        this.requestCustomizer = requireNonNull(requestCustomizer);
+    }
+
+    /**
+     * @param url the URL of the remote GraphQL endpoint
+     */
+    public HttpGraphQLRemoteRetriever(URL url) {
+        this(url, DefaultClient.INSTANCE, (request, context) -> {
+        });
+    }
+
+    public static <C> Builder<C> newBuilder(URL url) {
+        return new Builder<>(url);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> queryGraphQL(ExecutionInput executionInput, C context) {
+        final Request.Builder request = new Request.Builder()
+                .url(url)
+                .header("Accept", "application/json")
+                .post(new QueryRequestBody(executionInput));
+        requestCustomizer.accept(request, context);
+
+        final CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+        final Call call = client.newCall(request.build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                response.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response httpResponse) {
+                try (ResponseBody body = httpResponse.body()) {
+                    if (httpResponse.isSuccessful()) {
+                        response.complete(readResponse(body));
+                    } else {
+                        response.complete(readErrorResponse(httpResponse.code(), body));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            }
+        });
+        response.whenComplete((__, error) -> {
+            if (response.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpGraphQLRemoteRetriever{" +
+                "url=" + url +
+                '}';
+    }
+
+    /**
+     * GraphQL servers may report errors with an error status along with a regular response, holding the errors. Only
+     * when there is no such response does the query fail, e.g. for a proxy or gateway error, even when it is JSON
+     */
+    private Map<String, Object> readErrorResponse(int status, ResponseBody body) throws IOException {
+        final Map<String, Object> response;
+        try {
+            response = readResponse(body);
+        } catch (JsonParseException e) {
+            throw unexpectedStatus(status, e);
+        }
+        if (!response.containsKey("data") && !response.containsKey("errors")) {
+            throw unexpectedStatus(status, null);
+        }
+        return response;
+    }
+
+    private IOException unexpectedStatus(int status, @Nullable Throwable cause) {
+        return new IOException(format("Unexpected HTTP status %d querying %s", status, url), cause);
+    }
+
+    private static Map<String, Object> readResponse(ResponseBody body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected the response to be a JSON object");
+            }
+            return readObject(parser);
+        }
+    }
+
+    private static Map<String, Object> readObject(JsonParser parser) throws IOException {
+        final Map<String, Object> object = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            object.put(name, readValue(parser));
+        }
+        return object;
+    }
+
+    private static List<Object> readArray(JsonParser parser) throws IOException {
+        final List<Object> array = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            array.add(readValue(parser));
+        }
+        return array;
+    }
+
+    @Nullable
+    private static Object readValue(JsonParser parser) throws IOException {
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + parser.getCurrentToken());
+        }
+    }
+
+    private static void writeValue(JsonGenerator generator, @Nullable Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Iterable) {
+            generator.writeStartArray();
+            for (Object element : (Iterable<?>) value) {
+                writeValue(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            throw new JsonGenerationException("Unsupported variable value of type " + value.getClass().getName(),
+                    generator);
+        }
+    }
+
+    /**
+     * Writes the query as it is sent, possibly more than once if OkHttp retries the request
+     */
+    private static final class QueryRequestBody extends RequestBody {
+        private final ExecutionInput executionInput;
+
+        private QueryRequestBody(ExecutionInput executionInput) {
+            this.executionInput = requireNonNull(executionInput);
+        }
+
+        @Override
+        public MediaType contentType() {
+            return JSON;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(sink.outputStream())) {
+                generator.writeStartObject();
+                generator.writeStringField("query", executionInput.getQuery());
+                if (executionInput.getOperationName() != null) {
+                    generator.writeStringField("operationName", executionInput.getOperationName());
+                }
+                generator.writeFieldName("variables");
+                writeValue(generator, executionInput.getVariables());
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private static final class DefaultClient {
+        // OkHttp only runs 5 concurrent requests per host by default, too few when most queries go to a handful of
+        // services
+        private static final OkHttpClient INSTANCE = new OkHttpClient.Builder()
+                .dispatcher(newDispatcher())
+                .build();
+
+        private static Dispatcher newDispatcher() {
+            final Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(256);
+            dispatcher.setMaxRequestsPerHost(64);
+            return dispatcher;
+        }
+    }
+
+    public static final class Builder<C> {
+        private final URL url;
+        private OkHttpClient client = DefaultClient.INSTANCE;
+        private BiConsumer<Request.Builder, C> requestCustomizer = (request, context) -> {
+        };
+
+        @Nullable
+        private Duration connectTimeout;
+        @Nullable
+        private Duration readTimeout;
+        @Nullable
+        private Duration writeTimeout;
+
+        private Builder(URL url) {
+            this.url = requireNonNull(url);
+        }
+
+        /**
+         * @param client the client to send queries with, instead of the one shared by default. Timeouts set on this
+         *               builder override those of the client
+         */
+        public Builder<C> client(OkHttpClient client) {
+            this.client = requireNonNull(client);
+            return this;
+        }
+
+        /**
+         * @param requestCustomizer customizes the request of a query given its context, e.g. to add authentication
+         *                          headers
+         */
+        public Builder<C> requestCustomizer(BiConsumer<Request.Builder, C> requestCustomizer) {
+            this.requestCustomizer = requireNonNull(requestCustomizer);
+            return this;
+        }
+
+        public Builder<C> connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = checkTimeout("connectTimeout", connectTimeout);
+            return this;
+        }
+
+        /**
+         * @param readTimeout the maximum time between two reads of the response, including waiting for the response
+         *                    to start
+         */
+        public Builder<C> readTimeout(Duration readTimeout) {
+            this.readTimeout = checkTimeout("readTimeout", readTimeout);
+            return this;
+        }
+
+        public Builder<C> writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = checkTimeout("writeTimeout", writeTimeout);
+            return this;
+        }
+
+        private static Duration checkTimeout(String name, Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException(name + " must not be negative: " + timeout);
+            }
+            return timeout;
+        }
+
+        public HttpGraphQLRemoteRetriever<C> build() {
+            if (connectTimeout == null && readTimeout == null && writeTimeout == null) {
+                return new HttpGraphQLRemoteRetriever<>(url, client, requestCustomizer);
+            }
+
+            // a client built from another one shares its connection pool and dispatcher
+            final OkHttpClient.Builder clientBuilder = client.newBuilder();
+            if (connectTimeout != null) {
+                clientBuilder.connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (readTimeout != null) {
+                clientBuilder.readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (writeTimeout != null) {
+                clientBuilder.writeTimeout(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return new HttpGraphQLRemoteRetriever<>(url, clientBuilder.build(), requestCustomizer);
+        }
+    }
+}
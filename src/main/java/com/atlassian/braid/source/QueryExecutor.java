@@ -5,6 +5,7 @@ import com.atlassian.braid.BraidContext;
 import com.atlassian.braid.BraidContexts;
 import com.atlassian.braid.GraphQLQueryVisitor;
 import com.atlassian.braid.Link;
+import com.atlassian.braid.LinkResultCache;
 import com.atlassian.braid.SchemaSource;
 import com.atlassian.braid.document.DocumentMapper.MappedDocument;
 import com.atlassian.braid.java.util.BraidObjects;
@@ -47,25 +48,32 @@ import org.dataloader.BatchLoader;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import static com.atlassian.braid.BatchLoaderUtils.getTargetIdsFromEnvironment;
+import static com.atlassian.braid.BatchLoaderUtils.getTargetIdsFromEnvironmentAsync;
 import static com.atlassian.braid.TypeUtils.findQueryFieldDefinitions;
 import static com.atlassian.braid.graphql.language.GraphQLNodes.printNode;
 import static com.atlassian.braid.java.util.BraidCollectors.SingletonCharacteristics.ALLOW_MULTIPLE_OCCURRENCES;
-import static com.atlassian.braid.java.util.BraidCollectors.nullSafeToMap;
 import static com.atlassian.braid.java.util.BraidCollectors.singleton;
+import static com.atlassian.braid.java.util.BraidMaps.newBoundedMap;
+import static com.atlassian.braid.java.util.BraidMaps.newWeightBoundedMap;
 import static graphql.introspection.Introspection.TypeNameMetaFieldDef;
 import static graphql.language.OperationDefinition.Operation.MUTATION;
 import static graphql.language.OperationDefinition.Operation.QUERY;
@@ -76,22 +84,54 @@ import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Executes a query against the data source
  */
 class QueryExecutor<C> implements BatchLoaderFactory {
 
+    /**
+     * The default maximum total length of the batch queries cached per batch loader
+     */
+    static final int DEFAULT_QUERY_CACHE_WEIGHT = 1024 * 1024;
+
+    /**
+     * The default maximum length of a cached batch query, longer ones (e.g. of large batches) are built for each batch
+     * rather than evicting many smaller ones
+     */
+    static final int DEFAULT_MAX_CACHED_QUERY_LENGTH = 32 * 1024;
+
+    // the maximum number of distinct field shapes whose trimmed field is cached per batch loader
+    private static final int TRIMMED_FIELD_CACHE_SIZE = 256;
+
+    // the result slot of errors without path, and of those whose path doesn't start with a queried field
+    private static final int ALL_RESULT_SLOTS = -1;
+    private static final int UNKNOWN_RESULT_SLOT = -2;
+
     private final QueryFunction<C> queryFunction;
+    private final int queryCacheWeight;
+    private final int maxCachedQueryLength;
 
     QueryExecutor(QueryFunction<C> queryFunction) {
+        this(queryFunction, DEFAULT_QUERY_CACHE_WEIGHT, DEFAULT_MAX_CACHED_QUERY_LENGTH);
+    }
+
+    /**
+     * @param queryCacheWeight     the maximum total length of the batch queries cached per batch loader
+     * @param maxCachedQueryLength the maximum length of a cached batch query
+     */
+    QueryExecutor(QueryFunction<C> queryFunction, int queryCacheWeight, int maxCachedQueryLength) {
         this.queryFunction = requireNonNull(queryFunction);
+        this.queryCacheWeight = queryCacheWeight;
+        this.maxCachedQueryLength = maxCachedQueryLength;
     }
 
     @Override
     public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource,
                                                                                           @Nullable Link link) {
-        return new QueryExecutorBatchLoader<>(BraidObjects.cast(schemaSource), link, queryFunction);
+        return new QueryExecutorBatchLoader<>(BraidObjects.cast(schemaSource), link, queryFunction,
+                queryCacheWeight, maxCachedQueryLength);
     }
 
     private static class QueryExecutorBatchLoader<C> implements BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> {
@@ -103,10 +143,28 @@ class QueryExecutor<C> implements BatchLoaderFactory {
 
         private final QueryFunction<C> queryFunction;
 
-        private QueryExecutorBatchLoader(QueryExecutorSchemaSource schemaSource, @Nullable Link link, QueryFunction<C> queryFunction) {
+        /**
+         * Queries already built, by shape, as the only thing differing between batches of the same shape are the
+         * values of the variables. Bounded by the total length of the queries, as the size of batches varies widely.
+         */
+        private final Map<BatchQueryShape, BatchQuery> batchQueries;
+        private final int maxCachedQueryLength;
+
+        /**
+         * Trimmed fields by shape, as equal shapes produce the same trimmed field, see {@link FieldShape}. Those are
+         * shared by batches (of any shape) and must not be modified.
+         */
+        private final Map<FieldShape, TrimmedField> trimmedFields;
+
+        private QueryExecutorBatchLoader(QueryExecutorSchemaSource schemaSource, @Nullable Link link,
+                                         QueryFunction<C> queryFunction,
+                                         int queryCacheWeight, int maxCachedQueryLength) {
             this.schemaSource = requireNonNull(schemaSource);
             this.link = link;
             this.queryFunction = requireNonNull(queryFunction);
+            this.batchQueries = newWeightBoundedMap(queryCacheWeight, batchQuery -> batchQuery.query.length());
+            this.maxCachedQueryLength = maxCachedQueryLength;
+            this.trimmedFields = newBoundedMap(TRIMMED_FIELD_CACHE_SIZE);
         }
 
         @Override
@@ -115,85 +173,183 @@ class QueryExecutor<C> implements BatchLoaderFactory {
             final Operation operationType = checkAndGetOperationType(environments).orElse(QUERY);
             final GraphQLOutputType fieldOutputType = checkAndGetFieldOutputType(environments);
 
+            // target ids are only available once the sources of the environments are, which might be asynchronous
+            return getTargetIds(environments)
+                    .thenCompose(targetIds -> load(environments, targetIds, context, operationType, fieldOutputType));
+        }
+
+        private CompletableFuture<List<DataFetcherResult<Object>>> load(List<DataFetchingEnvironment> environments,
+                                                                        List<List<Object>> targetIds,
+                                                                        C context,
+                                                                        Operation operationType,
+                                                                        GraphQLOutputType fieldOutputType) {
+            // linked objects already in the result cache of the link aren't queried again
+            final ResultCacheLookup cacheLookup = newResultCacheLookup(context);
+
+            final BatchQuery batchQuery = getBatchQuery(environments, targetIds, operationType, fieldOutputType, cacheLookup);
+
+            return executeQuery(context, batchQuery, batchQuery.bindVariables(environments, targetIds))
+                    .thenApply(result -> {
+                        // this is to add data we don't need to fetch through batch loaders, e.g. when on the the variable
+                        // used in the query is fetched
+                        final Map<String, Object> data = batchQuery.resultMapper.apply(
+                                batchQuery.addShortCircuitedData(result.getData(), link, targetIds));
+
+                        final Object[] values = batchQuery.getResultValues(data);
+                        final int[] errorSlots = batchQuery.getErrorSlots(result.getErrors());
+                        if (cacheLookup != null) {
+                            cacheLookup.cacheResults(batchQuery.resultSlots, values, errorSlots);
+                            cacheLookup.addCachedValues(batchQuery.resultSlots, values);
+                        }
+                        return transformBatchResultIntoResultList(environments, batchQuery.resultSlots, values,
+                                result.getErrors(), errorSlots);
+                    });
+        }
+
+        @Nullable
+        private ResultCacheLookup newResultCacheLookup(C context) {
+            if (link == null || !link.getResultCache().isPresent()) {
+                return null;
+            }
+            final Function<Object, ?> partitionKey =
+                    link.getResultCachePartitionKey().orElseThrow(IllegalStateException::new);
+            return new ResultCacheLookup(link.getResultCache().get(), partitionKey.apply(context), this::getTrimmedField);
+        }
+
+        private CompletableFuture<List<List<Object>>> getTargetIds(List<DataFetchingEnvironment> environments) {
+            if (link == null) {
+                final List<List<Object>> noTargetIds = new ArrayList<>(environments.size());
+                environments.forEach(__ -> noTargetIds.add(emptyList()));
+                return completedFuture(noTargetIds);
+            }
+
+            final List<CompletableFuture<List>> targetIds = environments.stream()
+                    .map(environment -> getTargetIdsFromEnvironmentAsync(link, environment))
+                    .collect(toList());
+            return CompletableFuture.allOf(targetIds.toArray(new CompletableFuture[0]))
+                    .thenApply(__ -> targetIds.stream()
+                            .map(CompletableFuture::join)
+                            .map(BraidObjects::<List<Object>>cast)
+                            .collect(toList()));
+        }
+
+        private BatchQuery getBatchQuery(List<DataFetchingEnvironment> environments,
+                                         List<List<Object>> targetIds,
+                                         Operation operationType,
+                                         GraphQLOutputType fieldOutputType,
+                                         @Nullable ResultCacheLookup cacheLookup) {
+            final BatchQueryShape shape =
+                    BatchQueryShape.of(environments, targetIds, link, operationType, fieldOutputType, cacheLookup);
+            BatchQuery batchQuery = batchQueries.get(shape);
+            if (batchQuery == null) {
+                // not using computeIfAbsent as we don't want to hold the lock while building the query
+                batchQuery = newBatchQuery(shape, environments, targetIds, operationType, fieldOutputType);
+                if (batchQuery.query.length() <= maxCachedQueryLength) {
+                    batchQueries.put(shape, batchQuery);
+                }
+            }
+            return batchQuery;
+        }
+
+        private BatchQuery newBatchQuery(BatchQueryShape shape,
+                                         List<DataFetchingEnvironment> environments,
+                                         List<List<Object>> targetIds,
+                                         Operation operationType,
+                                         GraphQLOutputType fieldOutputType) {
             Document doc = new Document();
 
             OperationDefinition queryOp = newQueryOperationDefinition(fieldOutputType, operationType);
 
             doc.getDefinitions().add(queryOp);
 
-            Map<String, Object> variables = new HashMap<>();
-            Map<DataFetchingEnvironment, List<FieldKey>> clonedFields = new HashMap<>();
+            BatchVariables variables = new BatchVariables();
+            ResultSlots resultSlots = new ResultSlots();
+            List<int[]> environmentResultSlots = new ArrayList<>(environments.size());
+            List<ShortCircuitedField> shortCircuitedFields = new ArrayList<>();
 
-            // start at 99 so that we can find variables already counter-namespaced via startsWith()
-            AtomicInteger counter = new AtomicInteger(99);
-
-            // this is to gather data we don't need to fetch through batch loaders, e.g. when on the the variable used in
-            // the query is fetched
-            final Map<FieldKey, Object> shortCircuitedData = new HashMap<>();
+            // the result slots of the fields already requested for a given field or link target slot, see
+            // BatchQueryShape#of
+            Map<Integer, Integer> fieldSlotResults = new HashMap<>();
+            Map<Integer, Integer> targetSlotResults = new HashMap<>();
+            Map<Integer, Field> targetSlotQueryFields = new HashMap<>();
 
             // build batch queryResult
-            for (DataFetchingEnvironment environment : environments) {
-                List<FieldRequest> fields = new ArrayList<>();
-                List<Integer> usedCounterIds = new ArrayList<>();
+            for (int environmentIndex = 0; environmentIndex < environments.size(); environmentIndex++) {
+                final DataFetchingEnvironment environment = environments.get(environmentIndex);
+                int[] fields;
 
                 final OperationDefinition operationDefinition = getOperationDefinition(environment);
 
                 // add variable and argument for linked field identifier
                 if (link != null) {
-                    final List targetIds = getTargetIdsFromEnvironment(link, environment);
-
-                    Field cloneOfCurrentField = environment.getField().deepCopy();
-                    boolean fieldQueryOnlySelectingVariable = isFieldQueryOnlySelectingVariable(cloneOfCurrentField, link);
-                    for (Object targetId : targetIds) {
-                        final FieldRequest field = cloneField(schemaSource, counter, usedCounterIds, environment);
-                        if (isTargetIdNullAndCannotQueryLinkWithNull(targetId, link)) {
-                            shortCircuitedData.put(new FieldKey(field.field.getAlias()), null);
-                        } else if (fieldQueryOnlySelectingVariable) {
-                            shortCircuitedData.put(new FieldKey(field.field.getAlias()), new HashMap<String, Object>() {{
-                                put(link.getTargetVariableQueryField(), targetId);
-                            }});
+                    final List<Object> environmentTargetIds = targetIds.get(environmentIndex);
+                    final EnvironmentShape environmentShape = shape.environments.get(environmentIndex);
+                    final int[] targetSlots = environmentShape.targetSlots;
+                    fields = new int[targetSlots.length];
+
+                    boolean fieldQueryOnlySelectingVariable = isFieldQueryOnlySelectingVariable(environment.getField(), link);
+
+                    for (int targetIdIndex = 0; targetIdIndex < environmentTargetIds.size(); targetIdIndex++) {
+                        // the same target id with the same selection is only queried once
+                        final Integer existingResultSlot = targetSlotResults.get(targetSlots[targetIdIndex]);
+                        if (existingResultSlot != null) {
+                            final Field queryField = targetSlotQueryFields.get(targetSlots[targetIdIndex]);
+                            if (link.isMergeSelections() && queryField != null) {
+                                mergeFieldSelections(queryField, getTrimmedField(environment, environmentShape.fieldShape).field);
+                            }
+                            fields[targetIdIndex] = existingResultSlot;
+                            continue;
+                        }
+
+                        final Object targetId = environmentTargetIds.get(targetIdIndex);
+                        final int resultSlot;
+                        if (environmentShape.cachedTargetIds.get(targetIdIndex)) {
+                            // the data comes from the result cache, see ResultCacheLookup#addCachedValues
+                            resultSlot = resultSlots.addCached();
                         } else {
-                            addQueryVariable(queryOp, variables, counter, targetId, field);
-                            addFieldToQuery(doc, queryOp, variables, environment, operationDefinition, field);
+                            final FieldRequest field = newFieldRequest(environment, environmentShape.fieldShape, resultSlots);
+                            resultSlot = resultSlots.add(field);
+                            if (isTargetIdNullAndCannotQueryLinkWithNull(targetId, link)) {
+                                shortCircuitedFields.add(new ShortCircuitedField(field.field.getAlias()));
+                            } else if (fieldQueryOnlySelectingVariable) {
+                                shortCircuitedFields.add(new ShortCircuitedField(field.field.getAlias(), environmentIndex, targetIdIndex));
+                            } else {
+                                addQueryVariable(queryOp, variables, environmentIndex, targetIdIndex, field);
+                                addFieldToQuery(doc, queryOp, variables, environmentIndex, environment, operationDefinition, field);
+                                targetSlotQueryFields.put(targetSlots[targetIdIndex], field.field);
+                            }
                         }
 
-                        fields.add(field);
+                        targetSlotResults.put(targetSlots[targetIdIndex], resultSlot);
+                        fields[targetIdIndex] = resultSlot;
                     }
                 } else {
-                    FieldRequest field = cloneField(schemaSource, counter, usedCounterIds, environment);
-                    fields.add(field);
-                    addFieldToQuery(doc, queryOp, variables, environment, operationDefinition, field);
+                    final EnvironmentShape environmentShape = shape.environments.get(environmentIndex);
+                    final int fieldSlot = environmentShape.fieldSlot;
+                    final Integer existingResultSlot = fieldSlotResults.get(fieldSlot);
+                    if (existingResultSlot != null) {
+                        fields = new int[]{existingResultSlot};
+                    } else {
+                        FieldRequest field = newFieldRequest(environment, environmentShape.fieldShape, resultSlots);
+                        final int resultSlot = resultSlots.add(field);
+                        addFieldToQuery(doc, queryOp, variables, environmentIndex, environment, operationDefinition, field);
+                        fieldSlotResults.put(fieldSlot, resultSlot);
+                        fields = new int[]{resultSlot};
+                    }
                 }
-                clonedFields.put(environment, fields.stream()
-                        .map(f -> f.field.getAlias())
-                        .map(FieldKey::new)
-                        .collect(toList()));
+                environmentResultSlots.add(fields);
             }
 
             final MappedDocument mappedDocument = schemaSource.getDocumentMapper().apply(doc);
 
-            CompletableFuture<DataFetcherResult<Map<String, Object>>> queryResult = executeQuery(context, mappedDocument.getDocument(), queryOp, variables);
-            return queryResult
-                    .thenApply(result -> {
-                        final HashMap<FieldKey, Object> data = new HashMap<>();
-                        Map<FieldKey, Object> dataByKey = result.getData().entrySet().stream()
-                                .collect(nullSafeToMap(e -> new FieldKey(e.getKey()), Map.Entry::getValue));
-                        data.putAll(dataByKey);
-                        data.putAll(shortCircuitedData);
-                        return new DataFetcherResult<Map<FieldKey, Object>>(data, result.getErrors());
-                    })
-                    .thenApply(result -> {
-                        final Function<Map<String, Object>, Map<String, Object>> mapper = mappedDocument.getResultMapper();
-                        final Map<String, Object> data = new HashMap<>();
-                        result.getData().forEach((key, value) -> data.put(key.value, value));
-
-                        final Map<String, Object> newData = mapper.apply(data);
-
-                        final Map<FieldKey, Object> resultData = new HashMap<>();
-                        newData.forEach((key, value) -> resultData.put(new FieldKey(key), value));
-                        return new DataFetcherResult<>(resultData, result.getErrors());
-                    })
-                    .thenApply(result -> transformBatchResultIntoResultList(environments, clonedFields, result));
+            return new BatchQuery(
+                    queryOp.getSelectionSet().getSelections().isEmpty() ? null : printNode(mappedDocument.getDocument()),
+                    queryOp.getName(),
+                    variables.getBindings(),
+                    environmentResultSlots,
+                    resultSlots,
+                    shortCircuitedFields,
+                    mappedDocument.getResultMapper());
         }
 
         private static <C> C checkAndGetContext(Collection<DataFetchingEnvironment> environments) {
@@ -231,45 +387,76 @@ class QueryExecutor<C> implements BatchLoaderFactory {
                     .collect(singleton(ALLOW_MULTIPLE_OCCURRENCES));
         }
 
-        private void addFieldToQuery(Document doc, OperationDefinition queryOp, Map<String, Object> variables, DataFetchingEnvironment environment, OperationDefinition operationDefinition, FieldRequest field) {
-            final GraphQLQueryVisitor variableNameSpacer =
-                    new VariableNamespacingGraphQLQueryVisitor(field.counter, operationDefinition, variables, environment, queryOp);
-            processForFragments(schemaSource, environment, field.field).forEach(d -> {
-                variableNameSpacer.visit(d);
-                doc.getDefinitions().add(d);
-            });
+        /**
+         * Adds the (trimmed) selections of the field being fetched not already selected by the query field, the
+         * selections are known to be compatible, see {@link MergedSlot}
+         */
+        private void mergeFieldSelections(Field queryField, Field field) {
+            final List<Selection> querySelections = queryField.getSelectionSet().getSelections();
+            final Set<String> responseKeys = querySelections.stream()
+                    .filter(s -> s instanceof Field)
+                    .map(s -> getResponseKey((Field) s))
+                    .collect(toSet());
+            field.getSelectionSet().getSelections().stream()
+                    .filter(s -> s instanceof Field)
+                    .filter(s -> responseKeys.add(getResponseKey((Field) s)))
+                    .forEach(querySelections::add);
+        }
 
-            variableNameSpacer.visit(field.field);
+        private void addFieldToQuery(Document doc, OperationDefinition queryOp, BatchVariables variables, int environmentIndex, DataFetchingEnvironment environment, OperationDefinition operationDefinition, FieldRequest field) {
+            if (field.namespaceVariables) {
+                final GraphQLQueryVisitor variableNameSpacer =
+                        new VariableNamespacingGraphQLQueryVisitor(field.counter, operationDefinition, variables, environmentIndex, queryOp);
+                field.fragments.forEach(variableNameSpacer::visit);
+                variableNameSpacer.visit(field.field);
+            }
+            doc.getDefinitions().addAll(field.fragments);
             queryOp.getSelectionSet().getSelections().add(field.field);
         }
 
-        private CompletableFuture<DataFetcherResult<Map<String, Object>>> executeQuery(C context, Document doc, OperationDefinition queryOp, Map<String, Object> variables) {
+        private CompletableFuture<DataFetcherResult<Map<String, Object>>> executeQuery(C context, BatchQuery batchQuery, Map<String, Object> variables) {
             final CompletableFuture<DataFetcherResult<Map<String, Object>>> queryResult;
-            if (queryOp.getSelectionSet().getSelections().isEmpty()) {
+            if (batchQuery.query == null) {
                 queryResult = completedFuture(new DataFetcherResult<>(emptyMap(), emptyList()));
             } else {
-                ExecutionInput input = executeBatchQuery(doc, queryOp.getName(), variables);
+                ExecutionInput input = executeBatchQuery(batchQuery.query, batchQuery.operationName, variables);
                 queryResult = queryFunction.query(input, context);
             }
             return queryResult;
         }
 
-        private void addQueryVariable(OperationDefinition queryOp, Map<String, Object> variables, AtomicInteger counter, Object targetId, FieldRequest field) {
-            final String variableName = link.getArgumentName() + counter;
+        private void addQueryVariable(OperationDefinition queryOp, BatchVariables variables,
+                                      int environmentIndex, int targetIdIndex, FieldRequest field) {
+            final String variableName = link.getArgumentName() + field.counter;
 
             field.field.setName(link.getTargetQueryField());
             field.field.setArguments(linkQueryArgumentAsList(link, variableName));
 
             queryOp.getVariableDefinitions().add(linkQueryVariableDefinition(link, variableName, schemaSource));
-            variables.put(variableName, targetId);
+            variables.addTargetId(variableName, environmentIndex, targetIdIndex);
         }
 
-        private FieldRequest cloneField(SchemaSource schemaSource, AtomicInteger counter, List<Integer> usedCounterIds,
-                                        DataFetchingEnvironment environment) {
-            final Field field = cloneFieldBeingFetchedWithAlias(environment, createFieldAlias(counter.incrementAndGet()));
-            usedCounterIds.add(counter.get());
-            trimFieldSelection(schemaSource, environment, field);
-            return new FieldRequest(field, counter.get());
+        /**
+         * @return a new field to request for the environment, sharing the trimmed selection of the field unless it
+         * uses variables, as those are namespaced per requested field
+         */
+        private FieldRequest newFieldRequest(DataFetchingEnvironment environment, FieldShape fieldShape,
+                                             ResultSlots resultSlots) {
+            final TrimmedField trimmedField = getTrimmedField(environment, fieldShape);
+            final int counter = resultSlots.nextCounter();
+            return fieldShape.isUsingVariables() ?
+                    trimmedField.copyFieldRequest(environment, counter) :
+                    trimmedField.newFieldRequest(environment, counter);
+        }
+
+        private TrimmedField getTrimmedField(DataFetchingEnvironment environment, FieldShape fieldShape) {
+            TrimmedField trimmedField = trimmedFields.get(fieldShape);
+            if (trimmedField == null) {
+                // not using computeIfAbsent as we don't want to hold the lock while trimming the field
+                trimmedField = new TrimmedField(schemaSource, environment);
+                trimmedFields.put(fieldShape, trimmedField);
+            }
+            return trimmedField;
         }
     }
 
@@ -277,10 +464,18 @@ class QueryExecutor<C> implements BatchLoaderFactory {
         return environment.<BraidContext>getContext().getExecutionContext().getOperationDefinition();
     }
 
+    private static Map<String, Object> getOperationVariables(DataFetchingEnvironment environment) {
+        return environment.<BraidContext>getContext().getExecutionContext().getVariables();
+    }
+
     private static boolean isTargetIdNullAndCannotQueryLinkWithNull(Object targetId, Link link) {
         return targetId == null && !link.isNullable();
     }
 
+    private static String getResponseKey(Field field) {
+        return field.getAlias() != null ? field.getAlias() : field.getName();
+    }
+
     private static boolean isFieldQueryOnlySelectingVariable(Field field, Link link) {
         final List<Selection> selections = field.getSelectionSet().getSelections();
         return selections.stream().allMatch(s -> s instanceof Field) &&// this means that any fragment will make this return false
@@ -316,16 +511,10 @@ class QueryExecutor<C> implements BatchLoaderFactory {
         return "Bulk_" + type;
     }
 
-    private static Field cloneFieldBeingFetchedWithAlias(DataFetchingEnvironment environment, Function<Field, String> alias) {
-        Field field = environment.getField().deepCopy();
-        field.setAlias(alias.apply(field));
-        return field;
-    }
 
-
-    private static ExecutionInput executeBatchQuery(Document doc, String operationName, Map<String, Object> variables) {
+    private static ExecutionInput executeBatchQuery(String query, String operationName, Map<String, Object> variables) {
         return ExecutionInput.newExecutionInput()
-                .query(printNode(doc))
+                .query(query)
                 .operationName(operationName)
                 .variables(variables)
                 .build();
@@ -333,51 +522,63 @@ class QueryExecutor<C> implements BatchLoaderFactory {
 
     private static List<DataFetcherResult<Object>> transformBatchResultIntoResultList(
             List<DataFetchingEnvironment> environments,
-            Map<DataFetchingEnvironment, List<FieldKey>> clonedFields,
-            DataFetcherResult<Map<FieldKey, Object>> result) {
-        List<DataFetcherResult<Object>> queryResults = new ArrayList<>();
-        Map<FieldKey, Object> data = result.getData();
-        for (DataFetchingEnvironment environment : environments) {
-            List<FieldKey> fields = clonedFields.get(environment);
+            List<int[]> resultSlots,
+            Object[] values,
+            List<GraphQLError> errors,
+            int[] errorSlots) {
+        List<DataFetcherResult<Object>> queryResults = new ArrayList<>(environments.size());
+        for (int i = 0; i < environments.size(); i++) {
+            final DataFetchingEnvironment environment = environments.get(i);
+            final int[] slots = resultSlots.get(i);
             Object fieldData;
 
-            if (!fields.isEmpty()) {
-                FieldKey field = fields.get(0);
-                fieldData = BraidObjects.cast(data.getOrDefault(field, null));
+            if (slots.length > 0) {
+                fieldData = values[slots[0]];
 
                 if (environment.getFieldType() instanceof GraphQLList && !(fieldData instanceof List)) {
-                    fieldData = fields.stream()
-                            .map(f -> BraidObjects.cast(data.getOrDefault(f, null)))
-                            .collect(toList());
-                } else if (fields.size() > 1) {
+                    final List<Object> list = new ArrayList<>(slots.length);
+                    for (int slot : slots) {
+                        list.add(values[slot]);
+                    }
+                    fieldData = list;
+                } else if (slots.length > 1) {
                     throw new IllegalStateException("Can't query for multiple fields if the target type isn't a list");
                 }
-                queryResults.add(new DataFetcherResult<>(
-                        fieldData,
-                        buildDataFetcherResultErrors(result, fields)
-                ));
             } else if (environment.getSource() instanceof Map &&
                     environment.<Map<String, Object>>getSource().get(environment.getFieldDefinition().getName()) instanceof List) {
-                queryResults.add(new DataFetcherResult<>(
-                        emptyList(),
-                        buildDataFetcherResultErrors(result, fields)
-                ));
+                fieldData = emptyList();
             } else {
-                queryResults.add(new DataFetcherResult<>(
-                        null,
-                        buildDataFetcherResultErrors(result, fields)
-                ));
+                fieldData = null;
             }
+            queryResults.add(new DataFetcherResult<>(fieldData, buildDataFetcherResultErrors(errors, errorSlots, slots)));
         }
         return queryResults;
     }
 
-    private static List<GraphQLError> buildDataFetcherResultErrors(DataFetcherResult<Map<FieldKey, Object>> result, List<FieldKey> fields) {
-        return result.getErrors().stream()
-                .filter(e -> e.getPath() == null || e.getPath().isEmpty()
-                        || fields.contains(new FieldKey(String.valueOf(e.getPath().get(0)))))
-                .map(RelativeGraphQLError::new)
-                .collect(toList());
+    /**
+     * @return the errors without path, and those of the given result slots
+     * @see BatchQuery#getErrorSlots(List)
+     */
+    private static List<GraphQLError> buildDataFetcherResultErrors(List<GraphQLError> errors, int[] errorSlots, int[] slots) {
+        if (errors.isEmpty()) {
+            return emptyList();
+        }
+        final List<GraphQLError> resultErrors = new ArrayList<>();
+        for (int i = 0; i < errors.size(); i++) {
+            if (errorSlots[i] == ALL_RESULT_SLOTS || contains(slots, errorSlots[i])) {
+                resultErrors.add(new RelativeGraphQLError(errors.get(i)));
+            }
+        }
+        return resultErrors;
+    }
+
+    private static boolean contains(int[] slots, int slot) {
+        for (int s : slots) {
+            if (s == slot) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static Type findArgumentType(SchemaSource schemaSource, Link link) {
@@ -552,19 +753,19 @@ class QueryExecutor<C> implements BatchLoaderFactory {
     private static class VariableNamespacingGraphQLQueryVisitor extends GraphQLQueryVisitor {
         private final int counter;
         private final OperationDefinition queryType;
-        private final Map<String, Object> variables;
-        private final DataFetchingEnvironment environment;
+        private final BatchVariables variables;
+        private final int environmentIndex;
         private final OperationDefinition queryOp;
 
         VariableNamespacingGraphQLQueryVisitor(int counter,
                                                OperationDefinition operationDefinition,
-                                               Map<String, Object> variables,
-                                               DataFetchingEnvironment environment,
+                                               BatchVariables variables,
+                                               int environmentIndex,
                                                OperationDefinition queryOp) {
             this.counter = counter;
             this.queryType = operationDefinition;
             this.variables = variables;
-            this.environment = environment;
+            this.environmentIndex = environmentIndex;
             this.queryOp = queryOp;
         }
 
@@ -623,7 +824,7 @@ class QueryExecutor<C> implements BatchLoaderFactory {
             final VariableReference value = new VariableReference(newName);
             final Type type = findVariableType(varRef, queryType);
 
-            variables.put(newName, environment.<BraidContext>getContext().getExecutionContext().getVariables().get(varRef.getName()));
+            variables.addQueryVariable(newName, environmentIndex, varRef.getName());
             queryOp.getVariableDefinitions().add(new VariableDefinition(newName, type));
             return value;
         }
@@ -642,35 +843,812 @@ class QueryExecutor<C> implements BatchLoaderFactory {
         }
     }
 
-    private static class FieldRequest {
-        private final Field field;
-        private final int counter;
+    /**
+     * Records which value goes into which variable of a batch query, so that the query can be re-used for any batch of
+     * the same {@link BatchQueryShape shape}
+     */
+    private static class BatchVariables {
+        private final Map<String, VariableBinding> bindings = new LinkedHashMap<>();
 
-        private FieldRequest(Field field, int counter) {
-            this.field = field;
-            this.counter = counter;
+        private void addTargetId(String name, int environmentIndex, int targetIdIndex) {
+            bindings.put(name, new VariableBinding(name, environmentIndex, targetIdIndex, null));
+        }
+
+        private void addQueryVariable(String name, int environmentIndex, String sourceVariableName) {
+            bindings.put(name, new VariableBinding(name, environmentIndex, -1, requireNonNull(sourceVariableName)));
+        }
+
+        private List<VariableBinding> getBindings() {
+            return new ArrayList<>(bindings.values());
+        }
+    }
+
+    private static class VariableBinding {
+        private final String name;
+        private final int environmentIndex;
+        private final int targetIdIndex;
+
+        // the name of the variable in the original query, null when the variable is a link target id
+        @Nullable
+        private final String sourceVariableName;
+
+        private VariableBinding(String name, int environmentIndex, int targetIdIndex, @Nullable String sourceVariableName) {
+            this.name = requireNonNull(name);
+            this.environmentIndex = environmentIndex;
+            this.targetIdIndex = targetIdIndex;
+            this.sourceVariableName = sourceVariableName;
+        }
+
+        private Object getValue(List<DataFetchingEnvironment> environments, List<List<Object>> targetIds) {
+            if (sourceVariableName == null) {
+                return targetIds.get(environmentIndex).get(targetIdIndex);
+            } else {
+                return getOperationVariables(environments.get(environmentIndex)).get(sourceVariableName);
+            }
+        }
+    }
+
+    /**
+     * A field that is resolved without querying the data source, either to {@code null} or to its link target id
+     */
+    private static class ShortCircuitedField {
+        private final String alias;
+        private final int environmentIndex;
+        private final int targetIdIndex;
+
+        private ShortCircuitedField(String alias) {
+            this(alias, -1, -1);
+        }
+
+        private ShortCircuitedField(String alias, int environmentIndex, int targetIdIndex) {
+            this.alias = requireNonNull(alias);
+            this.environmentIndex = environmentIndex;
+            this.targetIdIndex = targetIdIndex;
+        }
+
+        private Object getValue(Link link, List<List<Object>> targetIds) {
+            if (environmentIndex < 0) {
+                return null;
+            }
+            final Map<String, Object> value = new HashMap<>();
+            value.put(link.getTargetVariableQueryField(), targetIds.get(environmentIndex).get(targetIdIndex));
+            return value;
+        }
+    }
+
+    /**
+     * A built (and mapped) batch query, everything in here only depends on the {@link BatchQueryShape shape} of the
+     * batch and can therefore be re-used for any batch of the same shape.
+     */
+    private static class BatchQuery {
+        // null if there is nothing to query
+        @Nullable
+        private final String query;
+        private final String operationName;
+        private final List<VariableBinding> variableBindings;
+
+        // for each environment, the result slot of each of its fields, see ResultSlots
+        private final List<int[]> resultSlots;
+
+        private final ResultSlotTable resultSlotTable;
+
+        private final List<ShortCircuitedField> shortCircuitedFields;
+        private final Function<Map<String, Object>, Map<String, Object>> resultMapper;
+
+        private BatchQuery(@Nullable String query,
+                           String operationName,
+                           List<VariableBinding> variableBindings,
+                           List<int[]> resultSlots,
+                           ResultSlots slots,
+                           List<ShortCircuitedField> shortCircuitedFields,
+                           Function<Map<String, Object>, Map<String, Object>> resultMapper) {
+            this.query = query;
+            this.operationName = requireNonNull(operationName);
+            this.variableBindings = requireNonNull(variableBindings);
+            this.resultSlots = requireNonNull(resultSlots);
+            this.resultSlotTable = new ResultSlotTable(slots);
+            this.shortCircuitedFields = requireNonNull(shortCircuitedFields);
+            this.resultMapper = requireNonNull(resultMapper);
+        }
+
+        private Map<String, Object> bindVariables(List<DataFetchingEnvironment> environments, List<List<Object>> targetIds) {
+            final Map<String, Object> variables = new HashMap<>();
+            variableBindings.forEach(vb -> variables.put(vb.name, vb.getValue(environments, targetIds)));
+            return variables;
+        }
+
+        private Map<String, Object> addShortCircuitedData(Map<String, Object> data, @Nullable Link link,
+                                                          List<List<Object>> targetIds) {
+            if (shortCircuitedFields.isEmpty()) {
+                return data;
+            }
+            final Map<String, Object> allData = new HashMap<>(data);
+            shortCircuitedFields.forEach(f -> allData.put(f.alias, f.getValue(link, targetIds)));
+            return allData;
+        }
+
+        /**
+         * @return the (mapped) value of each result slot
+         */
+        private Object[] getResultValues(Map<String, Object> data) {
+            final Object[] values = new Object[resultSlotTable.size()];
+            for (int i = 0; i < values.length; i++) {
+                final String alias = resultSlotTable.getAlias(i);
+                if (alias != null) {
+                    values[i] = data.get(alias);
+                }
+            }
+            return values;
+        }
+
+        /**
+         * @return the result slot of each error, given the first element of its path,
+         * {@link QueryExecutor#ALL_RESULT_SLOTS} for errors without path
+         */
+        private int[] getErrorSlots(List<GraphQLError> errors) {
+            final int[] errorSlots = new int[errors.size()];
+            for (int i = 0; i < errorSlots.length; i++) {
+                final List<Object> path = errors.get(i).getPath();
+                if (path == null || path.isEmpty()) {
+                    errorSlots[i] = ALL_RESULT_SLOTS;
+                } else {
+                    errorSlots[i] = resultSlotTable.getResultSlot(String.valueOf(path.get(0)));
+                }
+            }
+            return errorSlots;
+        }
+    }
+
+    /**
+     * The slots of a batch result, one per distinct field queried (or short-circuited, or served from the result
+     * cache), several environments or target ids can share the same result slot.
+     * <p>Queried fields are aliased (and their variables namespaced) with a counter, which also indexes the result slot
+     * of the field. Counters start at {@link #FIRST_COUNTER} so that they can be found back at the end of the alias of
+     * a field, see {@link #getResultSlot(String)}.
+     */
+    private static class ResultSlots {
+        private static final int FIRST_COUNTER = 100;
+
+        // the alias of each result slot, null if the field isn't part of the result
+        private final List<String> aliases = new ArrayList<>();
+
+        // the result slot of each counter, offset by FIRST_COUNTER
+        private final List<Integer> slotsByCounter = new ArrayList<>();
+
+        private int nextCounter() {
+            slotsByCounter.add(-1);
+            return FIRST_COUNTER + slotsByCounter.size() - 1;
+        }
+
+        /**
+         * @return the new result slot of the field
+         */
+        private int add(FieldRequest field) {
+            final int slot = addSlot(field.field.getAlias());
+            slotsByCounter.set(field.counter - FIRST_COUNTER, slot);
+            return slot;
+        }
+
+        /**
+         * @return a new result slot for a field served from the result cache, which isn't part of the result
+         */
+        private int addCached() {
+            return addSlot(null);
+        }
+
+        private int addSlot(@Nullable String alias) {
+            aliases.add(alias);
+            return aliases.size() - 1;
+        }
+    }
+
+    /**
+     * The {@link ResultSlots} of a built batch query
+     */
+    private static class ResultSlotTable {
+        private final String[] aliases;
+        private final int[] slotsByCounter;
+        private final int maxCounterDigits;
+
+        private ResultSlotTable(ResultSlots resultSlots) {
+            this.aliases = resultSlots.aliases.toArray(new String[0]);
+            this.slotsByCounter = resultSlots.slotsByCounter.stream().mapToInt(Integer::intValue).toArray();
+            this.maxCounterDigits = String.valueOf(ResultSlots.FIRST_COUNTER + slotsByCounter.length).length();
+        }
+
+        private int size() {
+            return aliases.length;
+        }
+
+        @Nullable
+        private String getAlias(int slot) {
+            return aliases[slot];
+        }
+
+        /**
+         * Finds the result slot of an alias from its counter suffix, as field names can themselves end with digits
+         * each possible counter length is tried
+         *
+         * @return the result slot of the alias, {@link QueryExecutor#UNKNOWN_RESULT_SLOT} if it isn't one of the batch
+         */
+        private int getResultSlot(String alias) {
+            final int minCounterDigits = String.valueOf(ResultSlots.FIRST_COUNTER).length();
+            int counter = 0;
+            int multiplier = 1;
+            for (int digits = 1; digits <= maxCounterDigits && digits <= alias.length(); digits++) {
+                final char c = alias.charAt(alias.length() - digits);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                counter += (c - '0') * multiplier;
+                multiplier *= 10;
+
+                final int index = counter - ResultSlots.FIRST_COUNTER;
+                if (digits >= minCounterDigits && c != '0' && index >= 0 && index < slotsByCounter.length) {
+                    final int slot = slotsByCounter[index];
+                    if (slot >= 0 && alias.equals(aliases[slot])) {
+                        return slot;
+                    }
+                }
+            }
+            return UNKNOWN_RESULT_SLOT;
+        }
+    }
+
+    /**
+     * The shape of a batch, i.e. everything the batch query depends on apart from the values of variables
+     */
+    private static class BatchQueryShape {
+        private final Operation operationType;
+        private final String operationName;
+        private final List<EnvironmentShape> environments;
+        private final int hashCode;
+
+        private BatchQueryShape(Operation operationType, String operationName, List<EnvironmentShape> environments) {
+            this.operationType = requireNonNull(operationType);
+            this.operationName = requireNonNull(operationName);
+            this.environments = requireNonNull(environments);
+            this.hashCode = Objects.hash(operationType, operationName, environments);
+        }
+
+        private static BatchQueryShape of(List<DataFetchingEnvironment> environments,
+                                          List<List<Object>> targetIds,
+                                          @Nullable Link link,
+                                          Operation operationType,
+                                          GraphQLOutputType fieldOutputType,
+                                          @Nullable ResultCacheLookup cacheLookup) {
+            final Map<Field, FieldShape.FieldNodes> fieldNodes = new IdentityHashMap<>();
+            final Map<FieldSlotKey, Integer> fieldSlots = new HashMap<>();
+            final TargetSlots targetSlots = new TargetSlots();
+            final List<FieldShape> fieldShapes = new ArrayList<>(environments.size());
+            final List<int[]> environmentTargetSlots = new ArrayList<>(environments.size());
+            for (int i = 0; i < environments.size(); i++) {
+                final DataFetchingEnvironment environment = environments.get(i);
+                final FieldShape fieldShape = FieldShape.of(environment, fieldNodes);
+                fieldShapes.add(fieldShape);
+                environmentTargetSlots.add(getTargetSlots(environment, fieldShape, targetIds.get(i), link, targetSlots));
+            }
+
+            // whether a target slot can be served from the cache depends on all the environments sharing it
+            if (cacheLookup != null) {
+                for (int i = 0; i < environments.size(); i++) {
+                    cacheLookup.lookup(environments.get(i), fieldShapes.get(i), targetIds.get(i), environmentTargetSlots.get(i), link);
+                }
+            }
+
+            final List<EnvironmentShape> shapes = new ArrayList<>(environments.size());
+            for (int i = 0; i < environments.size(); i++) {
+                final DataFetchingEnvironment environment = environments.get(i);
+                final FieldShape fieldShape = fieldShapes.get(i);
+                shapes.add(new EnvironmentShape(fieldShape,
+                        getFieldSlot(environment, fieldShape, link, operationType, fieldSlots),
+                        targetIds.get(i),
+                        environmentTargetSlots.get(i),
+                        link,
+                        cacheLookup));
+            }
+            return new BatchQueryShape(operationType, newBulkOperationName(fieldOutputType), shapes);
+        }
+
+        /**
+         * Assigns a slot to the field of an environment, environments fetching the same field with the same arguments
+         * get the same slot and so are only queried once. Linked fields (see {@link #getTargetSlots}) and mutations are
+         * never merged.
+         */
+        private static int getFieldSlot(DataFetchingEnvironment environment,
+                                        FieldShape fieldShape,
+                                        @Nullable Link link,
+                                        Operation operationType,
+                                        Map<FieldSlotKey, Integer> fieldSlots) {
+            final FieldSlotKey key = link == null && operationType == QUERY ?
+                    new FieldSlotKey(fieldShape, environment.getArguments()) :
+                    new FieldSlotKey(environment, null);
+            Integer slot = fieldSlots.get(key);
+            if (slot == null) {
+                slot = fieldSlots.size();
+                fieldSlots.put(key, slot);
+            }
+            return slot;
+        }
+
+        /**
+         * Assigns a slot to each target id, the same target id queried with the same field shape gets the same slot.
+         * When the link {@link Link#isMergeSelections() merges selections}, the same target id queried with compatible
+         * selections also gets the same slot.
+         * <p>Merged slots are therefore shared by <em>different</em> field shapes: anything kept per slot (e.g. cached
+         * values, see {@link ResultCacheLookup}) must hold for all the shapes sharing it, not only the first one.
+         */
+        private static int[] getTargetSlots(DataFetchingEnvironment environment,
+                                            FieldShape fieldShape,
+                                            List<Object> targetIds,
+                                            @Nullable Link link,
+                                            TargetSlots targetSlots) {
+            final MergeableField mergeableField = link != null && link.isMergeSelections() ?
+                    MergeableField.of(environment, link) : null;
+
+            final int[] slots = new int[targetIds.size()];
+            for (int i = 0; i < slots.length; i++) {
+                final Object targetId = targetIds.get(i);
+                if (mergeableField != null && !isTargetIdNullAndCannotQueryLinkWithNull(targetId, link)) {
+                    slots[i] = targetSlots.getMergedSlot(mergeableField, targetId);
+                } else {
+                    slots[i] = targetSlots.getSlot(fieldShape, targetId);
+                }
+            }
+            return slots;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BatchQueryShape that = (BatchQueryShape) o;
+            return hashCode == that.hashCode &&
+                    operationType == that.operationType &&
+                    Objects.equals(operationName, that.operationName) &&
+                    Objects.equals(environments, that.environments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
-    // The unique key of a id that is being requested
-    private static class FieldKey {
-        private final String value;
+    private static class EnvironmentShape {
+        private final FieldShape fieldShape;
+
+        // the slot of the field, environments sharing the same slot are only queried once
+        private final int fieldSlot;
+
+        // the slot of each target id, target ids sharing the same slot are only queried once
+        private final int[] targetSlots;
+
+        // the target ids that will be short-circuited, as null
+        private final BitSet nullTargetIds;
+
+        // the target ids that will be served from the result cache of the link
+        private final BitSet cachedTargetIds;
+
+        private EnvironmentShape(FieldShape fieldShape, int fieldSlot, List<Object> targetIds, int[] targetSlots,
+                                 @Nullable Link link, @Nullable ResultCacheLookup cacheLookup) {
+            this.fieldShape = requireNonNull(fieldShape);
+            this.fieldSlot = fieldSlot;
+            this.targetSlots = requireNonNull(targetSlots);
+            this.nullTargetIds = new BitSet(targetSlots.length);
+            this.cachedTargetIds = new BitSet(targetSlots.length);
+            for (int i = 0; i < targetSlots.length; i++) {
+                if (link != null && isTargetIdNullAndCannotQueryLinkWithNull(targetIds.get(i), link)) {
+                    nullTargetIds.set(i);
+                }
+                if (cacheLookup != null && cacheLookup.isCached(targetSlots[i])) {
+                    cachedTargetIds.set(i);
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EnvironmentShape that = (EnvironmentShape) o;
+            return fieldSlot == that.fieldSlot &&
+                    Objects.equals(fieldShape, that.fieldShape) &&
+                    Arrays.equals(targetSlots, that.targetSlots) &&
+                    Objects.equals(nullTargetIds, that.nullTargetIds) &&
+                    Objects.equals(cachedTargetIds, that.cachedTargetIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(fieldShape, fieldSlot, nullTargetIds, cachedTargetIds) + Arrays.hashCode(targetSlots);
+        }
+    }
+
+    private static class FieldSlotKey {
+        // either the field shape, or the environment itself when it shall not be merged with any other
+        private final Object field;
+
+        @Nullable
+        private final Map<String, Object> arguments;
+
+        private FieldSlotKey(Object field, @Nullable Map<String, Object> arguments) {
+            this.field = requireNonNull(field);
+            this.arguments = arguments;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FieldSlotKey that = (FieldSlotKey) o;
+            return Objects.equals(field, that.field) &&
+                    Objects.equals(arguments, that.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, arguments);
+        }
+    }
+
+    private static class TargetSlots {
+        private final Map<TargetSlotKey, Integer> slots = new HashMap<>();
+        private final Map<TargetSlotKey, List<MergedSlot>> mergedSlots = new HashMap<>();
+        private int size = 0;
+
+        private int getSlot(FieldShape fieldShape, @Nullable Object targetId) {
+            return slots.computeIfAbsent(new TargetSlotKey(fieldShape, targetId), __ -> size++);
+        }
+
+        /**
+         * Finds a slot for the same target id whose selections don't conflict with those of the field, creating one if
+         * none does
+         */
+        private int getMergedSlot(MergeableField field, Object targetId) {
+            final List<MergedSlot> candidates =
+                    mergedSlots.computeIfAbsent(new TargetSlotKey(field.directives, targetId), __ -> new ArrayList<>());
+            for (MergedSlot candidate : candidates) {
+                if (candidate.merge(field)) {
+                    return candidate.slot;
+                }
+            }
+            final MergedSlot slot = new MergedSlot(size++);
+            slot.merge(field);
+            candidates.add(slot);
+            return slot.slot;
+        }
+    }
+
+    private static class TargetSlotKey {
+        // either the field shape or, when merging selections, the printed directives of the field
+        private final Object field;
+
+        @Nullable
+        private final Object targetId;
+
+        private TargetSlotKey(Object field, @Nullable Object targetId) {
+            this.field = requireNonNull(field);
+            this.targetId = targetId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TargetSlotKey that = (TargetSlotKey) o;
+            return Objects.equals(field, that.field) &&
+                    Objects.equals(targetId, that.targetId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(field, targetId);
+        }
+    }
+
+    /**
+     * The linked objects of a batch found in the {@link LinkResultCache result cache} of the link, and the
+     * ones to put in it once queried, within the partition of the context of the batch
+     */
+    private static class ResultCacheLookup {
+        private final LinkResultCache cache;
+
+        @Nullable
+        private final Object partition;
+        private final BiFunction<DataFetchingEnvironment, FieldShape, TrimmedField> trimmedFields;
+
+        // for each environment, the cache key of each target id, null when the target id can't be cached
+        private final List<ResultCacheKey[]> keys = new ArrayList<>();
+        private final List<int[]> targetSlots = new ArrayList<>();
+
+        // the value found for each key looked up (null if missed), so that each distinct key is only looked up once
+        private final Map<ResultCacheKey, Object> values = new HashMap<>();
+
+        // cached values by target slot, a slot is only served from the cache when all the target ids sharing it are,
+        // with the very same value. Target ids with different field shapes can share a (merged) slot, each finding the
+        // value cached for its own selection, which can't be returned to the others
+        private final Map<Integer, Object> cachedSlots = new HashMap<>();
+        private final Set<Integer> missedSlots = new HashSet<>();
+
+        private ResultCacheLookup(LinkResultCache cache, @Nullable Object partition,
+                                  BiFunction<DataFetchingEnvironment, FieldShape, TrimmedField> trimmedFields) {
+            this.cache = requireNonNull(cache);
+            this.partition = partition;
+            this.trimmedFields = requireNonNull(trimmedFields);
+        }
+
+        private void lookup(DataFetchingEnvironment environment, FieldShape fieldShape, List<Object> targetIds,
+                            int[] slots, Link link) {
+            // results depending on the values of variables, and short-circuited ones, aren't cached
+            final boolean cacheable = !fieldShape.isUsingVariables()
+                    && !isFieldQueryOnlySelectingVariable(environment.getField(), link);
+
+            // the linked object only depends on the trimmed selection, not on the rest of the operation
+            final String selection = cacheable ? trimmedFields.apply(environment, fieldShape).getSelection() : null;
+
+            final ResultCacheKey[] environmentKeys = new ResultCacheKey[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                final Object targetId = targetIds.get(i);
+                final Object value;
+                if (selection != null && targetId != null) {
+                    environmentKeys[i] = new ResultCacheKey(partition, selection, targetId);
+                    value = get(environmentKeys[i]);
+                } else {
+                    value = null;
+                }
+
+                if (value == null || missedSlots.contains(slots[i])) {
+                    missSlot(slots[i]);
+                } else {
+                    final Object slotValue = cachedSlots.putIfAbsent(slots[i], value);
+                    if (slotValue != null && slotValue != value) {
+                        missSlot(slots[i]);
+                    }
+                }
+            }
+            keys.add(environmentKeys);
+            targetSlots.add(slots);
+        }
+
+        @Nullable
+        private Object get(ResultCacheKey key) {
+            if (values.containsKey(key)) {
+                return values.get(key);
+            }
+            final Object value = cache.get(key);
+            values.put(key, value);
+            return value;
+        }
+
+        private void missSlot(int slot) {
+            missedSlots.add(slot);
+            cachedSlots.remove(slot);
+        }
+
+        private boolean isCached(int slot) {
+            return cachedSlots.containsKey(slot);
+        }
 
-        private FieldKey(String value) {
-            this.value = value;
+        /**
+         * Sets the values of the result slots served from the cache
+         */
+        private void addCachedValues(List<int[]> resultSlots, Object[] values) {
+            for (int i = 0; i < targetSlots.size(); i++) {
+                final int[] slots = targetSlots.get(i);
+                for (int j = 0; j < slots.length; j++) {
+                    final Object value = cachedSlots.get(slots[j]);
+                    if (value != null) {
+                        values[resultSlots.get(i)[j]] = value;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Caches the queried linked objects, unless they came with errors
+         */
+        private void cacheResults(List<int[]> resultSlots, Object[] values, int[] errorSlots) {
+            final BitSet failedSlots = new BitSet(values.length);
+            for (int errorSlot : errorSlots) {
+                if (errorSlot == ALL_RESULT_SLOTS) {
+                    return;
+                }
+                if (errorSlot >= 0) {
+                    failedSlots.set(errorSlot);
+                }
+            }
+
+            for (int i = 0; i < keys.size(); i++) {
+                final ResultCacheKey[] environmentKeys = keys.get(i);
+                for (int j = 0; j < environmentKeys.length; j++) {
+                    final int resultSlot = resultSlots.get(i)[j];
+                    if (environmentKeys[j] == null || isCached(targetSlots.get(i)[j]) || failedSlots.get(resultSlot)) {
+                        continue;
+                    }
+                    final Object value = values[resultSlot];
+                    if (value != null) {
+                        cache.put(environmentKeys[j], value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The key of {@link LinkResultCache} entries
+     */
+    private static class ResultCacheKey {
+        @Nullable
+        private final Object partition;
+        private final String selection;
+        private final Object targetId;
+        private final int hashCode;
+
+        private ResultCacheKey(@Nullable Object partition, String selection, Object targetId) {
+            this.partition = partition;
+            this.selection = requireNonNull(selection);
+            this.targetId = requireNonNull(targetId);
+            this.hashCode = Objects.hash(partition, selection, targetId);
         }
 
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
-            FieldKey fieldKey = (FieldKey) o;
-            return Objects.equals(value, fieldKey.value);
+            ResultCacheKey that = (ResultCacheKey) o;
+            return hashCode == that.hashCode &&
+                    Objects.equals(partition, that.partition) &&
+                    Objects.equals(selection, that.selection) &&
+                    Objects.equals(targetId, that.targetId);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(value);
+            return hashCode;
+        }
+    }
+
+    /**
+     * A slot shared by fetches of the same target object with different, but compatible, selections
+     */
+    private static class MergedSlot {
+        private final int slot;
+
+        // printed selections by response key (i.e. alias or name)
+        private final Map<String, String> selections = new HashMap<>();
+
+        private MergedSlot(int slot) {
+            this.slot = slot;
+        }
+
+        private boolean merge(MergeableField field) {
+            final boolean compatible = field.selections.entrySet().stream()
+                    .allMatch(e -> Objects.equals(selections.getOrDefault(e.getKey(), e.getValue()), e.getValue()));
+            if (compatible) {
+                selections.putAll(field.selections);
+            }
+            return compatible;
+        }
+    }
+
+    /**
+     * A linked field whose selections can be merged with those of other fetches of the same target object
+     */
+    private static class MergeableField {
+        private final String directives;
+        private final Map<String, String> selections;
+
+        private MergeableField(String directives, Map<String, String> selections) {
+            this.directives = requireNonNull(directives);
+            this.selections = requireNonNull(selections);
+        }
+
+        /**
+         * @return the mergeable field, or {@code null} if the field selections can't be merged safely, i.e. if they
+         * use fragments or variables (which would need to be carried along with the merged selections) or if the
+         * field would be short-circuited anyway
+         */
+        @Nullable
+        private static MergeableField of(DataFetchingEnvironment environment, Link link) {
+            final Field field = environment.getField();
+            if (isFieldQueryOnlySelectingVariable(field, link)) {
+                return null;
+            }
+
+            final Map<String, String> selections = new HashMap<>();
+            for (Selection selection : field.getSelectionSet().getSelections()) {
+                if (!(selection instanceof Field)) {
+                    return null;
+                }
+                final String printedSelection = printNode(selection);
+                // there is no other way for a printed selection to contain those but to use variables or fragments
+                if (printedSelection.contains("$") || printedSelection.contains("...")) {
+                    return null;
+                }
+                selections.put(getResponseKey((Field) selection), printedSelection);
+            }
+
+            final StringBuilder directives = new StringBuilder();
+            field.getDirectives().forEach(d -> directives.append(printNode(d)));
+            return new MergeableField(directives.toString(), selections);
+        }
+    }
+
+    private static class FieldRequest {
+        private final Field field;
+        private final int counter;
+
+        // the trimmed fragments referenced by the field
+        private final Collection<Definition> fragments;
+
+        // whether the field and its fragments are copies whose variables must be namespaced, rather than shared
+        private final boolean namespaceVariables;
+
+        private FieldRequest(Field field, int counter, Collection<Definition> fragments, boolean namespaceVariables) {
+            this.field = field;
+            this.counter = counter;
+            this.fragments = fragments;
+            this.namespaceVariables = namespaceVariables;
+        }
+    }
+
+    /**
+     * The field being fetched by an environment with its selection trimmed, and the (trimmed) fragments it
+     * references. Fields requested for the same field shape share its selections and fragments, only the alias, name
+     * and arguments of the requested fields differ. Fields using variables are copied so that their variables can be
+     * namespaced.
+     */
+    private static class TrimmedField {
+        private final Field field;
+        private final Collection<Definition> fragments;
+
+        // see #getSelection
+        private volatile String selection;
+
+        private TrimmedField(SchemaSource schemaSource, DataFetchingEnvironment environment) {
+            this.field = environment.getField().deepCopy();
+            trimFieldSelection(schemaSource, environment, field);
+            this.fragments = processForFragments(schemaSource, environment, field);
+        }
+
+        private FieldRequest newFieldRequest(DataFetchingEnvironment environment, int counter) {
+            // the selection set is copied as merging selections adds to it, see QueryExecutorBatchLoader#mergeFieldSelections
+            final SelectionSet selectionSet = field.getSelectionSet() == null ? null :
+                    new SelectionSet(new ArrayList<>(field.getSelectionSet().getSelections()));
+            final Field requestedField = new Field(field.getName(),
+                    createFieldAlias(counter).apply(environment.getField()),
+                    field.getArguments(),
+                    field.getDirectives(),
+                    selectionSet);
+            return new FieldRequest(requestedField, counter, fragments, false);
+        }
+
+        /**
+         * @return the printed directives, selection and fragments of the field, i.e. everything the queried object
+         * depends on apart from its target id
+         */
+        private String getSelection() {
+            String printedSelection = selection;
+            if (printedSelection == null) {
+                final StringBuilder printed = new StringBuilder();
+                field.getDirectives().forEach(d -> printed.append(printNode(d)));
+                if (field.getSelectionSet() != null) {
+                    printed.append(printNode(field.getSelectionSet()));
+                }
+                fragments.forEach(fd -> printed.append(printNode(fd)));
+                printedSelection = printed.toString();
+                selection = printedSelection;
+            }
+            return printedSelection;
+        }
+
+        private FieldRequest copyFieldRequest(DataFetchingEnvironment environment, int counter) {
+            final Field requestedField = field.deepCopy();
+            requestedField.setAlias(createFieldAlias(counter).apply(environment.getField()));
+            final List<Definition> fragmentCopies = new ArrayList<>(fragments.size());
+            fragments.forEach(fd -> fragmentCopies.add(BraidObjects.cast(fd.deepCopy())));
+            return new FieldRequest(requestedField, counter, fragmentCopies, true);
         }
     }
 }
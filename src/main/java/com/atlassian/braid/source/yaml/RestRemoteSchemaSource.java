@@ -8,22 +8,30 @@ import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.BatchLoader;
 
+import javax.annotation.Nullable;
 import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.atlassian.braid.java.util.BraidObjects.cast;
 import static com.atlassian.braid.source.SchemaUtils.loadPublicSchema;
 import static com.atlassian.braid.source.SchemaUtils.loadSchema;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
  * Data source for an external REST service.
@@ -39,19 +47,61 @@ public final class RestRemoteSchemaSource<C> extends AbstractSchemaSource {
     /**
      * A RootField is an entity that is fetched from an invocation to the remoteRetriever. It is looked up
      * by name from the query and parameters from the environment are templated into the uri using a {} parameter
-     * format.
+     * format, percent-encoded unless using reserved expansion, e.g. {@code {+path}}, see {@link UriTemplate}.
      * <p>
      * The response is converted by the mapper to allow manipulation of fields for example renaming after retrieval.
      */
     public static final class RootField {
         String name;
         String uri;
+        UriTemplate uriTemplate;
         Function<Map<String, Object>, Map<String, Object>> mapper;
+        BatchUri batchUri;
 
         public RootField(String name, String uri, Function<Map<String, Object>, Map<String, Object>> mapper) {
+            this(name, uri, mapper, null);
+        }
+
+        /**
+         * @param batchUri when not {@code null}, links to this root field fetch all the target objects of a batch
+         *                 through this URI rather than the {@code uri} of each one
+         */
+        public RootField(String name, String uri, Function<Map<String, Object>, Map<String, Object>> mapper,
+                         BatchUri batchUri) {
             this.name = name;
             this.uri = uri;
+            this.uriTemplate = UriTemplate.parse(uri);
             this.mapper = mapper;
+            this.batchUri = batchUri;
+        }
+    }
+
+    /**
+     * A URI fetching several objects at once, e.g. {@code https://example.com/users?ids={id}}, used to fetch the
+     * targets of links to a {@link RootField}. The link argument parameter is replaced with the comma separated
+     * (distinct) ids of the batch.
+     * <p>The response holds the list of objects found under the {@code itemsKey}, each one is correlated to its id via
+     * its {@code idKey} field and then converted by the mapper of the root field. Ids without a matching object
+     * resolve to {@code null}.
+     */
+    public static final class BatchUri {
+        UriTemplate uri;
+        String itemsKey;
+        String idKey;
+        int maxSize;
+
+        /**
+         * @param uri      the templated batch URI
+         * @param itemsKey the key of the list of objects in the response
+         * @param idKey    the key of the id of each object
+         * @param maxSize  the maximum number of ids per call, larger batches are split into parallel calls, or
+         *                 {@code 0} for no limit
+         */
+        public BatchUri(String uri, String itemsKey, String idKey, int maxSize) {
+            this.uri = UriTemplate.parse(uri);
+            this.itemsKey = requireNonNull(itemsKey);
+            this.idKey = requireNonNull(idKey);
+            this.maxSize = maxSize;
         }
     }
 
@@ -80,38 +130,154 @@ public final class RestRemoteSchemaSource<C> extends AbstractSchemaSource {
     @Override
     public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource, Link link) {
         return environments -> {
+            final RootField linkedField = link == null ? null : rootFields.get(link.getTargetQueryField());
+            if (linkedField != null && linkedField.batchUri != null) {
+                return loadBatch(link, linkedField, environments);
+            }
+
+            // environments resolving to the same URI, e.g. links to the same object, share the same call
+            Map<RootField, Map<String, CompletableFuture<DataFetcherResult<Object>>>> calls = new HashMap<>();
+
             List<CompletableFuture<DataFetcherResult<Object>>> results = new ArrayList<>();
             for (DataFetchingEnvironment env : environments) {
-
-                String uri;
-                Function<Map<String, Object>, Map<String, Object>> mapper;
-                if (link == null) {
-                    RootField field = rootFields.get(env.getFieldDefinition().getName());
-                    uri = replaceParams(env.getArguments(), field.uri);
-                    mapper = field.mapper;
-
-                } else {
-                    Map<String, Object> source = env.getSource();
-                    RootField field = rootFields.get(link.getTargetQueryField());
-                    String id = (String) source.get(link.getSourceFromField());
-                    uri = replaceParams(singletonMap(link.getArgumentName(), id), field.uri);
-                    mapper = field.mapper;
+                final RootField field = link == null ? rootFields.get(env.getFieldDefinition().getName()) : linkedField;
+                final String uri = field == null ? null : expandUri(field, link, env);
+                if (uri == null) {
+                    // nothing to fetch, e.g. a link without target id
+                    results.add(completedFuture(new DataFetcherResult<Object>(null, emptyList())));
+                    continue;
                 }
 
-                URL url;
-                try {
-                    url = new URL(uri);
-                } catch (MalformedURLException e) {
-                    throw new RuntimeException(e);
-                }
-                results.add(remoteRetriever.get(url, env.getContext())
-                        .thenApply(mapper)
-                        .thenApply(response -> new DataFetcherResult<>(response, emptyList())));
+                results.add(calls.computeIfAbsent(field, __ -> new HashMap<>())
+                        .computeIfAbsent(uri, __ -> remoteRetriever.get(toUrl(uri), env.getContext())
+                                .thenApply(field.mapper)
+                                .thenApply(response -> new DataFetcherResult<Object>(response, emptyList()))));
             }
             return allOf(results);
         };
     }
 
+    @Nullable
+    private static String expandUri(RootField field, @Nullable Link link, DataFetchingEnvironment env) {
+        if (link == null) {
+            return field.uriTemplate.expand(env.getArguments());
+        }
+        // the template expands numbers and lists of ids as well
+        final Object id = getSourceFromFieldValue(link, env);
+        return id == null ? null : field.uriTemplate.expand(singletonMap(link.getArgumentName(), id));
+    }
+
+    /**
+     * Fetches the targets of the link for all the environments through the {@link BatchUri batch URI} of the root field
+     * <p>All the environments of a batch come from the same execution, data loaders being per execution, so the calls
+     * are made with the context of the first one.
+     */
+    private CompletableFuture<List<DataFetcherResult<Object>>> loadBatch(Link link, RootField field,
+                                                                         List<DataFetchingEnvironment> environments) {
+        // the id, or list of ids, of each environment
+        final List<Object> ids = new ArrayList<>(environments.size());
+        final Set<String> distinctIds = new LinkedHashSet<>();
+        for (DataFetchingEnvironment env : environments) {
+            final Object id = toTargetIds(getSourceFromFieldValue(link, env));
+            ids.add(id);
+            if (id instanceof List) {
+                ((List<?>) id).stream().filter(Objects::nonNull).forEach(i -> distinctIds.add((String) i));
+            } else if (id != null) {
+                distinctIds.add((String) id);
+            }
+        }
+
+        final BatchUri batchUri = field.batchUri;
+        final List<CompletableFuture<Map<String, Object>>> calls = new ArrayList<>();
+        for (List<String> batchIds : partition(new ArrayList<>(distinctIds), batchUri.maxSize)) {
+            String uri = batchUri.uri.expand(singletonMap(link.getArgumentName(), batchIds));
+            calls.add(remoteRetriever.get(toUrl(uri), environments.get(0).getContext())
+                    .thenApply(response -> getItemsById(batchUri, field.mapper, response)));
+        }
+
+        return allOf(calls).thenApply(responses -> {
+            final Map<String, Object> itemsById = new HashMap<>();
+            responses.forEach(itemsById::putAll);
+            final List<DataFetcherResult<Object>> results = new ArrayList<>(ids.size());
+            ids.forEach(id -> results.add(new DataFetcherResult<>(getItems(itemsById, id), emptyList())));
+            return results;
+        });
+    }
+
+    @Nullable
+    private static Object getSourceFromFieldValue(Link link, DataFetchingEnvironment env) {
+        final Map<String, Object> source = env.getSource();
+        return source == null ? null : source.get(link.getSourceFromField());
+    }
+
+    /**
+     * @return the target id of a link as a string, whatever its type in the source object, or a list of those for a
+     * list of ids
+     */
+    @Nullable
+    private static Object toTargetIds(@Nullable Object value) {
+        if (value instanceof Iterable) {
+            final List<String> ids = new ArrayList<>();
+            ((Iterable<?>) value).forEach(id -> ids.add(id == null ? null : String.valueOf(id)));
+            return ids;
+        }
+        return value == null ? null : String.valueOf(value);
+    }
+
+    @Nullable
+    private static Object getItems(Map<String, Object> itemsById, @Nullable Object ids) {
+        if (ids instanceof List) {
+            final List<Object> items = new ArrayList<>(((List<?>) ids).size());
+            ((List<?>) ids).forEach(id -> items.add(id == null ? null : itemsById.get(id)));
+            return items;
+        }
+        return ids == null ? null : itemsById.get(ids);
+    }
+
+    private static Map<String, Object> getItemsById(BatchUri batchUri,
+                                                    Function<Map<String, Object>, Map<String, Object>> mapper,
+                                                    Map<String, Object> response) {
+        final Map<String, Object> itemsById = new HashMap<>();
+        final Iterable<Map<String, Object>> items = cast(response.get(batchUri.itemsKey));
+        if (items != null) {
+            for (Map<String, Object> item : items) {
+                final Object id = item.get(batchUri.idKey);
+                if (id != null) {
+                    itemsById.put(String.valueOf(id), mapper.apply(item));
+                }
+            }
+        }
+        return itemsById;
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int maxSize) {
+        if (list.isEmpty()) {
+            return emptyList();
+        }
+        if (maxSize <= 0 || list.size() <= maxSize) {
+            return singletonList(list);
+        }
+        final List<List<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += maxSize) {
+            partitions.add(list.subList(i, Math.min(i + maxSize, list.size())));
+        }
+        return partitions;
+    }
+
+    private static URL toUrl(String uri) {
+        try {
+            return new URL(uri);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Replaces the {@code {}} parameters of the template with the values, without any encoding
+     *
+     * @deprecated root fields use a {@link UriTemplate}, which is parsed once and encodes values
+     */
+    @Deprecated
     public static String replaceParams(Map<String, Object> hashMap, String template) {
         return hashMap.entrySet().stream()
                 .filter(e -> e.getValue() != null)
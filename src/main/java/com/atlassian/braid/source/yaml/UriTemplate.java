@@ -0,0 +1,146 @@
+package com.atlassian.braid.source.yaml;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A URI template using a {@code {}} parameter format, e.g. {@code https://example.com/users/{id}}, parsed once into
+ * literal segments and parameters.
+ * <p>Parameter values are percent-encoded (all but unreserved characters, as UTF-8), {@link Iterable} values are
+ * expanded to their comma separated elements. Parameters without a (non {@code null}) value are left as is.
+ * <p>Values of parameters using reserved expansion, e.g. {@code https://example.com/repos/{+path}}, keep reserved
+ * characters (such as {@code /}, {@code ?} or {@code &}) and existing percent-encoded octets as is, so that paths and
+ * pre-encoded values can be substituted, only other characters are percent-encoded.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class UriTemplate {
+
+    private final String template;
+
+    // the literal segments, and the parameter names in between, whether using reserved expansion or not
+    private final String[] literals;
+    private final String[] parameters;
+    private final boolean[] reserved;
+    private final int literalsLength;
+
+    private UriTemplate(String template, List<String> literals, List<String> parameters) {
+        this.template = requireNonNull(template);
+        this.literals = literals.toArray(new String[0]);
+        this.parameters = new String[parameters.size()];
+        this.reserved = new boolean[parameters.size()];
+        for (int i = 0; i < parameters.size(); i++) {
+            this.reserved[i] = parameters.get(i).startsWith("+");
+            this.parameters[i] = reserved[i] ? parameters.get(i).substring(1) : parameters.get(i);
+        }
+        this.literalsLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static UriTemplate parse(String template) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> parameters = new ArrayList<>();
+
+        int start = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            final int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literals.add(template.substring(start, open));
+            parameters.add(template.substring(open + 1, close));
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        literals.add(template.substring(start));
+        return new UriTemplate(template, literals, parameters);
+    }
+
+    /**
+     * @param values the values of the parameters, by name
+     * @return the expanded URI
+     */
+    public String expand(Map<String, ?> values) {
+        final StringBuilder uri = new StringBuilder(literalsLength + 16 * parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            uri.append(literals[i]);
+            final Object value = values.get(parameters[i]);
+            if (value == null) {
+                uri.append(reserved[i] ? "{+" : "{").append(parameters[i]).append('}');
+            } else if (value instanceof Iterable) {
+                final Iterator<?> iterator = ((Iterable<?>) value).iterator();
+                while (iterator.hasNext()) {
+                    appendEncoded(uri, String.valueOf(iterator.next()), reserved[i]);
+                    if (iterator.hasNext()) {
+                        uri.append(',');
+                    }
+                }
+            } else {
+                appendEncoded(uri, value.toString(), reserved[i]);
+            }
+        }
+        return uri.append(literals[parameters.length]).toString();
+    }
+
+    private static void appendEncoded(StringBuilder uri, String value, boolean reserved) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!isAllowed(c, reserved) && !(reserved && isPercentEncoded(value, i))) {
+                appendPercentEncoded(uri, value, i, reserved);
+                return;
+            }
+        }
+        uri.append(value);
+    }
+
+    private static void appendPercentEncoded(StringBuilder uri, String value, int firstEncoded, boolean reserved) {
+        uri.append(value, 0, firstEncoded);
+        final byte[] bytes = value.substring(firstEncoded).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            final byte b = bytes[i];
+            if (b >= 0 && (isAllowed((char) b, reserved) || reserved && b == '%' && isPercentEncoded(bytes, i))) {
+                uri.append((char) b);
+            } else {
+                uri.append('%')
+                        .append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+    }
+
+    private static boolean isAllowed(char c, boolean reserved) {
+        return isUnreserved(c) || reserved && isReserved(c);
+    }
+
+    private static boolean isPercentEncoded(String value, int i) {
+        return value.charAt(i) == '%' && i + 2 < value.length()
+                && isHexDigit(value.charAt(i + 1)) && isHexDigit(value.charAt(i + 2));
+    }
+
+    private static boolean isPercentEncoded(byte[] bytes, int i) {
+        return i + 2 < bytes.length && isHexDigit((char) bytes[i + 1]) && isHexDigit((char) bytes[i + 2]);
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    // the gen-delims and sub-delims of RFC 3986
+    private static boolean isReserved(char c) {
+        return ":/?#[]@!$&'()*+,;=".indexOf(c) >= 0;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -3,6 +3,7 @@ package com.atlassian.braid.source.yaml;
 import com.atlassian.braid.Link;
 import com.atlassian.braid.SchemaNamespace;
 import com.atlassian.braid.SchemaSource;
+import com.atlassian.braid.document.DocumentMappers;
 import com.atlassian.braid.java.util.BraidMaps;
 import com.atlassian.braid.java.util.BraidObjects;
 import com.atlassian.braid.mapper.Mapper;
@@ -14,10 +15,13 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import static com.atlassian.braid.java.util.BraidObjects.cast;
 import static com.atlassian.braid.mapper.Mappers.fromYamlList;
+import static com.atlassian.braid.source.SchemaUtils.loadPublicSchema;
+import static com.atlassian.braid.source.SchemaUtils.loadSchema;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
@@ -44,7 +48,8 @@ public class YamlRemoteSchemaSourceFactory {
                     Map<String, Object> params = e.getValue();
 
                     Mapper mapping = fromYamlList(BraidObjects.cast(params.get("responseMapping")));
-                    return new RestRemoteSchemaSource.RootField(fieldName, cast(params.get("uri")), mapping);
+                    return new RestRemoteSchemaSource.RootField(fieldName, cast(params.get("uri")), mapping,
+                            buildBatchUri(params).orElse(null));
                 })
                 .collect(toMap(f -> f.name, f -> f));
 
@@ -65,10 +70,34 @@ public class YamlRemoteSchemaSourceFactory {
 
         return new GraphQLRemoteSchemaSource<>(
                 namespace,
-                schema,
+                loadPublicSchema(schema, buildTopLevelFields(m)),
+                loadSchema(schema),
                 graphQLRemoteRetriever,
                 buildLinks(m),
-                buildTopLevelFields(m));
+                DocumentMappers.identity(),
+                getMaxBatchSize(m).orElse(null));
+    }
+
+    private static Optional<RestRemoteSchemaSource.BatchUri> buildBatchUri(Map<String, Object> rootField) {
+        return BraidMaps.get(rootField, "batch")
+                .map(BraidObjects::<Map<String, Object>>cast)
+                .map(batch -> new RestRemoteSchemaSource.BatchUri(
+                        getOrThrow(batch, "uri"),
+                        getOrThrow(batch, "items"),
+                        getOrThrow(batch, "idKey"),
+                        getMaxBatchSize(batch).orElse(0)));
+    }
+
+    private static Optional<Integer> getMaxBatchSize(Map<String, ?> m) {
+        return Optional.ofNullable(m.get("maxBatchSize")).map(String::valueOf).map(Integer::valueOf)
+                .map(YamlRemoteSchemaSourceFactory::checkMaxBatchSize);
+    }
+
+    private static int checkMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        return maxBatchSize;
     }
 
     private static Map<String, Object> loadYamlMap(Reader source) {
@@ -109,6 +138,8 @@ public class YamlRemoteSchemaSourceFactory {
 
         BraidMaps.get(to, "argument").ifPresent(linkBuilder::argument);
         BraidMaps.get(to, "nullable").map(Boolean::valueOf).ifPresent(linkBuilder::setNullable);
+        BraidMaps.get(to, "mergeSelections").map(Boolean::valueOf).ifPresent(linkBuilder::setMergeSelections);
+        getMaxBatchSize(to).ifPresent(linkBuilder::setMaxBatchSize);
 
         return linkBuilder.build();
     }
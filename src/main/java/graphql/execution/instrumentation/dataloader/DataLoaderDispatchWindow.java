@@ -0,0 +1,83 @@
+package graphql.execution.instrumentation.dataloader;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Configures the {@link LazyRecursiveDataLoaderDispatcherInstrumentation} to hold data loaders open for a short window
+ * before dispatching them, so that loads coming from sibling branches completing (asynchronously) close to each other
+ * are coalesced into fewer, fuller batches.
+ * <p>Data loaders are dispatched when the window elapses or as soon as the number of pending loads reaches the size
+ * threshold, whichever comes first. The threshold is checked when the dispatch is requested and, with a
+ * {@link TrackingDataLoaderRegistry} (as used by Braid), on each load made while the dispatch is held. With any other
+ * registry, loads made during the window never release it early.
+ */
+public final class DataLoaderDispatchWindow {
+    private final Duration window;
+    private final int sizeThreshold;
+    private final ScheduledExecutorService scheduler;
+    private final DispatchMetrics metrics;
+
+    private DataLoaderDispatchWindow(Duration window, int sizeThreshold, ScheduledExecutorService scheduler,
+                                     DispatchMetrics metrics) {
+        this.window = requireNonNull(window);
+        this.sizeThreshold = sizeThreshold;
+        this.scheduler = requireNonNull(scheduler);
+        this.metrics = requireNonNull(metrics);
+    }
+
+    /**
+     * @param window        the maximum time a dispatch is held for
+     * @param sizeThreshold the number of pending loads (across all data loaders) that triggers a dispatch before the
+     *                      window elapses
+     * @param scheduler     the scheduler used to dispatch data loaders once the window elapses, should it reject a
+     *                      task the data loaders are dispatched immediately
+     * @return a new dispatch window
+     */
+    public static DataLoaderDispatchWindow of(Duration window, int sizeThreshold, ScheduledExecutorService scheduler) {
+        return new DataLoaderDispatchWindow(window, sizeThreshold, scheduler, (__, ___, ____, _____) -> {
+        });
+    }
+
+    /**
+     * @param metrics the listener notified of each actual dispatch
+     * @return a copy of this dispatch window notifying the given metrics listener
+     */
+    public DataLoaderDispatchWindow withMetrics(DispatchMetrics metrics) {
+        return new DataLoaderDispatchWindow(window, sizeThreshold, scheduler, metrics);
+    }
+
+    Duration getWindow() {
+        return window;
+    }
+
+    int getSizeThreshold() {
+        return sizeThreshold;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    DispatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Listener for metrics about each actual dispatch of the data loaders, showing how much coalescing happened.
+     * Dispatches that find no pending loads aren't reported.
+     */
+    @FunctionalInterface
+    public interface DispatchMetrics {
+        /**
+         * @param requestedDispatches the number of dispatches requested (i.e. would have happened without a window)
+         *                            that were coalesced into this one
+         * @param dispatchedLoaders   the number of data loaders which had pending loads, i.e. the number of batches
+         * @param dispatchedLoads     the number of loads dispatched across all data loaders
+         * @param heldNanos           how long the dispatch was held for, in nanoseconds
+         */
+        void onDispatch(int requestedDispatches, int dispatchedLoaders, int dispatchedLoads, long heldNanos);
+    }
+}
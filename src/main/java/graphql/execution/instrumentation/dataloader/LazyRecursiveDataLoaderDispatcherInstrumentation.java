@@ -2,22 +2,27 @@ package graphql.execution.instrumentation.dataloader;
 
 import graphql.ExecutionResult;
 import graphql.execution.DataFetcherResult;
+import graphql.execution.ExecutionContext;
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.SimpleInstrumentation;
 import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
-import org.dataloader.impl.CompletableFutureKit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
 
-import static com.atlassian.braid.java.util.BraidLists.concat;
 import static graphql.execution.instrumentation.SimpleInstrumentationContext.whenDispatched;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Batch loading instrumentation that aims at being as lazy as possible and dispatches recursively when needed to ensure
@@ -26,74 +31,208 @@ import static java.util.Objects.requireNonNull;
 public final class LazyRecursiveDataLoaderDispatcherInstrumentation extends SimpleInstrumentation {
     private static final Logger log = LoggerFactory.getLogger(LazyRecursiveDataLoaderDispatcherInstrumentation.class);
 
-    private final DataLoaderRegistry dataLoaderRegistry;
+    private final Function<ExecutionContext, DataLoaderRegistry> dataLoaderRegistry;
+
+    @Nullable
+    private final DataLoaderDispatchWindow dispatchWindow;
 
     public LazyRecursiveDataLoaderDispatcherInstrumentation(DataLoaderRegistry dataLoaderRegistry) {
+        this(dataLoaderRegistry, null);
+    }
+
+    /**
+     * @param dataLoaderRegistry the registry of data loaders to dispatch
+     * @param dispatchWindow     the window to hold dispatches for, {@code null} to dispatch as soon as possible
+     */
+    public LazyRecursiveDataLoaderDispatcherInstrumentation(DataLoaderRegistry dataLoaderRegistry,
+                                                            @Nullable DataLoaderDispatchWindow dispatchWindow) {
+        this(sameFor(requireNonNull(dataLoaderRegistry)), dispatchWindow);
+    }
+
+    /**
+     * This allows the same instrumentation to be shared by all executions, each having its own data loader registry.
+     *
+     * @param dataLoaderRegistry gets the registry of data loaders to dispatch for a given execution
+     * @param dispatchWindow     the window to hold dispatches for, {@code null} to dispatch as soon as possible
+     */
+    public LazyRecursiveDataLoaderDispatcherInstrumentation(Function<ExecutionContext, DataLoaderRegistry> dataLoaderRegistry,
+                                                            @Nullable DataLoaderDispatchWindow dispatchWindow) {
         this.dataLoaderRegistry = requireNonNull(dataLoaderRegistry);
+        this.dispatchWindow = dispatchWindow;
+    }
+
+    private static Function<ExecutionContext, DataLoaderRegistry> sameFor(DataLoaderRegistry dataLoaderRegistry) {
+        return __ -> dataLoaderRegistry;
     }
 
     @Override
     public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
-        return whenDispatched(__ -> dispatch());
+        final DataLoaderRegistry registry = dataLoaderRegistry.apply(parameters.getExecutionContext());
+        final Dispatcher dispatcher = new Dispatcher(registry);
+        if (dispatchWindow != null && registry instanceof TrackingDataLoaderRegistry) {
+            return dispatcher.checkingThresholdOnLoad((TrackingDataLoaderRegistry) registry, dispatchWindow);
+        }
+        return whenDispatched(__ -> dispatcher.dispatch());
     }
 
-    private void dispatch() {
-        log.debug("Dispatching all data loaders ({})", dataLoaderRegistry.getKeys());
-        final DispatchBatchLoaderCalls allDispatched = dataLoaderRegistry.getKeys().stream()
-                .map(key -> dispatchBatchLoader(dataLoaderRegistry, key))
-                .reduce(new DispatchBatchLoaderCalls(), DispatchBatchLoaderCalls::add, DispatchBatchLoaderCalls::combine);
+    /**
+     * Dispatches the data loaders of a single execution
+     */
+    private final class Dispatcher {
+        private final DataLoaderRegistry dataLoaderRegistry;
 
-        if (allDispatched.depth > 0) {
-            allDispatched.whenComplete(this::dispatch);
-        }
-    }
+        // state of the dispatch being held, guarded by this
+        private int requestedDispatches = 0;
+        private long firstRequestedNanos = 0;
+        private ScheduledFuture<?> scheduledDispatch = null;
 
-    private DispatchBatchLoaderCall dispatchBatchLoader(DataLoaderRegistry dataLoaderRegistry, String key) {
-        final DataLoader<Object, DataFetcherResult> dataLoader = dataLoaderRegistry.getDataLoader(key);
+        private Dispatcher(DataLoaderRegistry dataLoaderRegistry) {
+            this.dataLoaderRegistry = requireNonNull(dataLoaderRegistry);
+        }
 
-        final int dispatchDepth = dataLoader.dispatchDepth();
-        return new DispatchBatchLoaderCall<>(dispatchDepth, dataLoader.dispatch());
-    }
+        private void dispatch() {
+            if (dispatchWindow == null) {
+                dispatchNow();
+            } else {
+                holdDispatch(dispatchWindow);
+            }
+        }
 
-    private static class DispatchBatchLoaderCall<V> {
-        private final int depth;
-        private final CompletableFuture<List<V>> futures;
+        /**
+         * A dispatch is only requested once the operation has started and then whenever the dispatched batches complete,
+         * so the size threshold of the window is also checked as loads are made, for as long as the operation executes.
+         */
+        private InstrumentationContext<ExecutionResult> checkingThresholdOnLoad(TrackingDataLoaderRegistry registry,
+                                                                               DataLoaderDispatchWindow window) {
+            final Runnable onLoad = () -> onLoad(window);
+            registry.addLoadListener(onLoad);
+            return new InstrumentationContext<ExecutionResult>() {
+                @Override
+                public void onDispatched(CompletableFuture<ExecutionResult> result) {
+                    dispatch();
+                }
+
+                @Override
+                public void onCompleted(ExecutionResult result, Throwable t) {
+                    registry.removeLoadListener(onLoad);
+                }
+            };
+        }
 
-        private DispatchBatchLoaderCall(int depth, CompletableFuture<List<V>> futures) {
-            this.depth = depth;
-            this.futures = futures;
+        private void onLoad(DataLoaderDispatchWindow window) {
+            final boolean thresholdReached;
+            synchronized (this) {
+                // loads made while no dispatch is held are dispatched with the next one requested
+                thresholdReached = requestedDispatches > 0 && getPendingLoads() >= window.getSizeThreshold();
+            }
+            if (thresholdReached) {
+                releaseDispatch(window);
+            }
         }
-    }
 
-    private static class DispatchBatchLoaderCalls {
-        private final int depth;
-        private final List<CompletableFuture<List<?>>> futures;
+        private void holdDispatch(DataLoaderDispatchWindow window) {
+            boolean dispatchNow;
+            synchronized (this) {
+                if (requestedDispatches++ == 0) {
+                    firstRequestedNanos = System.nanoTime();
+                }
+                dispatchNow = getPendingLoads() >= window.getSizeThreshold();
+                if (!dispatchNow && scheduledDispatch == null) {
+                    try {
+                        scheduledDispatch = window.getScheduler().schedule(
+                                () -> releaseDispatch(window), window.getWindow().toNanos(), NANOSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // e.g. the scheduler is shutting down, holding the dispatch would never complete the query
+                        log.warn("Dispatch window scheduler rejected the held dispatch ({}), dispatching now",
+                                e.toString());
+                        dispatchNow = true;
+                    }
+                }
+            }
+            if (dispatchNow) {
+                releaseDispatch(window);
+            }
+        }
 
-        private DispatchBatchLoaderCalls() {
-            this(0);
+        private void releaseDispatch(DataLoaderDispatchWindow window) {
+            final int requested;
+            final long heldNanos;
+            synchronized (this) {
+                if (requestedDispatches == 0) {
+                    return; // already released, by the size threshold being reached
+                }
+                requested = requestedDispatches;
+                heldNanos = System.nanoTime() - firstRequestedNanos;
+                requestedDispatches = 0;
+                if (scheduledDispatch != null) {
+                    scheduledDispatch.cancel(false);
+                    scheduledDispatch = null;
+                }
+            }
+
+            final DispatchBatchLoaderCalls allDispatched = dispatchNow();
+            if (allDispatched.loaders > 0) {
+                window.getMetrics().onDispatch(requested, allDispatched.loaders, allDispatched.depth, heldNanos);
+            }
         }
 
-        private DispatchBatchLoaderCalls(int depth) {
-            this.depth = depth;
-            this.futures = new ArrayList<>();
+        private int getPendingLoads() {
+            int pendingLoads = 0;
+            for (String key : getDirtyKeys(false)) {
+                pendingLoads += dataLoaderRegistry.getDataLoader(key).dispatchDepth();
+            }
+            return pendingLoads;
         }
 
-        private DispatchBatchLoaderCalls(int depth, List<CompletableFuture<List<?>>> futures) {
-            this.depth = depth;
-            this.futures = new ArrayList<>(futures);
+        private DispatchBatchLoaderCalls dispatchNow() {
+            final Collection<String> keys = getDirtyKeys(true);
+            log.debug("Dispatching data loaders ({})", keys);
+
+            final DispatchBatchLoaderCalls allDispatched = new DispatchBatchLoaderCalls();
+            for (String key : keys) {
+                final DataLoader<Object, DataFetcherResult> dataLoader = dataLoaderRegistry.getDataLoader(key);
+                final int dispatchDepth = dataLoader.dispatchDepth();
+                if (dispatchDepth > 0) {
+                    allDispatched.add(dispatchDepth, dataLoader.dispatch());
+                }
+            }
+
+            if (allDispatched.depth > 0) {
+                allDispatched.whenComplete(this::dispatch);
+            }
+            return allDispatched;
         }
 
-        @SuppressWarnings("unchecked")
-        private DispatchBatchLoaderCalls add(DispatchBatchLoaderCall dbl) {
-            return new DispatchBatchLoaderCalls(this.depth + dbl.depth, concat(this.futures, dbl.futures));
+        /**
+         * @param take whether the keys are about to be dispatched, and so shouldn't be tracked as dirty anymore
+         * @return the keys of the data loaders that might have pending loads, i.e. all of them unless the registry
+         * tracks them
+         */
+        private Collection<String> getDirtyKeys(boolean take) {
+            if (dataLoaderRegistry instanceof TrackingDataLoaderRegistry) {
+                final TrackingDataLoaderRegistry registry = (TrackingDataLoaderRegistry) dataLoaderRegistry;
+                return take ? registry.takeDirtyKeys() : registry.getDirtyKeys();
+            } else {
+                return dataLoaderRegistry.getKeys();
+            }
         }
+    }
+
+    private static class DispatchBatchLoaderCalls {
+        private int depth = 0;
+
+        // the number of loaders actually dispatched, i.e. with a depth greater than 0
+        private int loaders = 0;
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
 
-        private static DispatchBatchLoaderCalls combine(DispatchBatchLoaderCalls ds1, DispatchBatchLoaderCalls ds2) {
-            return new DispatchBatchLoaderCalls(ds1.depth + ds2.depth, concat(ds1.futures, ds2.futures));
+        private void add(int depth, CompletableFuture<?> future) {
+            this.depth += depth;
+            this.loaders++;
+            this.futures.add(future);
         }
 
         private void whenComplete(Runnable onComplete) {
-            CompletableFutureKit.allOf(futures).whenComplete((__, ___) -> onComplete.run());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((__, ___) -> onComplete.run());
         }
     }
 }
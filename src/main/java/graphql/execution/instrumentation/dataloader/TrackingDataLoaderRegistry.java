@@ -0,0 +1,129 @@
+package graphql.execution.instrumentation.dataloader;
+
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A data loader registry which keeps track of the data loaders that have been loaded from since they were last
+ * dispatched, so that the {@link LazyRecursiveDataLoaderDispatcherInstrumentation} only dispatches those.
+ * <p>Only data loaders registered through {@link #register(String, BatchLoader, DataLoaderOptions)} are tracked, those
+ * registered as is through {@link #register(String, DataLoader)} can't be and so are always dispatched.
+ */
+public class TrackingDataLoaderRegistry extends DataLoaderRegistry {
+
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    // the keys of the data loaders that aren't tracked, which are always deemed dirty
+    private final Set<String> untrackedKeys = ConcurrentHashMap.newKeySet();
+
+    private final Set<Runnable> loadListeners = new CopyOnWriteArraySet<>();
+
+    /**
+     * Registers a new tracked data loader for the given batch loader
+     *
+     * @param key         the key of the data loader
+     * @param batchLoader the batch loader used by the data loader
+     * @param options     the options of the data loader
+     * @return {@code this} registry
+     */
+    public <K, V> TrackingDataLoaderRegistry register(String key, BatchLoader<K, V> batchLoader, DataLoaderOptions options) {
+        register(key, newDataLoader(key, batchLoader, options));
+        return this;
+    }
+
+    @Override
+    public DataLoaderRegistry register(String key, DataLoader<?, ?> dataLoader) {
+        if (isTracked(key, dataLoader)) {
+            untrackedKeys.remove(key);
+        } else {
+            untrackedKeys.add(key);
+        }
+        return super.register(key, dataLoader);
+    }
+
+    private boolean isTracked(String key, DataLoader<?, ?> dataLoader) {
+        return dataLoader instanceof TrackedDataLoader && ((TrackedDataLoader<?, ?>) dataLoader).isTracking(this, key);
+    }
+
+    protected final <K, V> DataLoader<K, V> newDataLoader(String key, BatchLoader<K, V> batchLoader, DataLoaderOptions options) {
+        return new TrackedDataLoader<>(key, batchLoader, options);
+    }
+
+    /**
+     * @return the keys of the data loaders loaded from since they were last dispatched, and those of the data loaders
+     * that aren't tracked
+     */
+    Collection<String> getDirtyKeys() {
+        final List<String> keys = new ArrayList<>(dirtyKeys);
+        addUntrackedKeys(keys);
+        return keys;
+    }
+
+    /**
+     * @return the keys of the data loaders loaded from since they were last dispatched, those are not tracked as such
+     * anymore as they are about to be dispatched
+     */
+    Collection<String> takeDirtyKeys() {
+        final List<String> keys = new ArrayList<>(dirtyKeys.size());
+        for (Iterator<String> it = dirtyKeys.iterator(); it.hasNext(); ) {
+            keys.add(it.next());
+            it.remove();
+        }
+        addUntrackedKeys(keys);
+        return keys;
+    }
+
+    /**
+     * @param listener notified, on the loading thread, after each load made through a tracked data loader
+     */
+    void addLoadListener(Runnable listener) {
+        loadListeners.add(requireNonNull(listener));
+    }
+
+    void removeLoadListener(Runnable listener) {
+        loadListeners.remove(listener);
+    }
+
+    private void addUntrackedKeys(List<String> keys) {
+        if (!untrackedKeys.isEmpty()) {
+            // untracked data loaders might have been unregistered since
+            untrackedKeys.retainAll(getKeys());
+            keys.addAll(untrackedKeys);
+        }
+    }
+
+    private final class TrackedDataLoader<K, V> extends DataLoader<K, V> {
+        private final String key;
+
+        private TrackedDataLoader(String key, BatchLoader<K, V> batchLoadFunction, DataLoaderOptions options) {
+            super(batchLoadFunction, options);
+            this.key = requireNonNull(key);
+        }
+
+        private boolean isTracking(TrackingDataLoaderRegistry registry, String key) {
+            return registry == TrackingDataLoaderRegistry.this && this.key.equals(key);
+        }
+
+        @Override
+        public CompletableFuture<V> load(K key) {
+            final CompletableFuture<V> value = super.load(key);
+            // marked after loading, so that a concurrent dispatch can't miss it
+            dirtyKeys.add(this.key);
+            loadListeners.forEach(Runnable::run);
+            return value;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.atlassian.braid.source.yaml
 
+import com.atlassian.braid.Link
 import com.atlassian.braid.SchemaNamespace
 import graphql.schema.DataFetchingEnvironment
 import graphql.schema.GraphQLFieldDefinition
@@ -57,4 +58,142 @@ schema {
         def result = restSchemaSource.newBatchLoader(restSchemaSource, null).load([de])
         assert result.get().data == [["jim": "bar"]]
     }
+
+    @Test
+    void restRemoteLinkWithBatchUri() {
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setBody(toJson(["values": [["key": "a", "foo": "bar"], ["key": "b", "foo": "baz"]]])))
+        server.start()
+
+        def schema = """
+schema {
+    query: Query
+  }
+  type Query {
+    foo(id: String) : Foo
+  } 
+  type Foo {
+      jim: String
+  } 
+"""
+
+        def fooMapper = { sourceMap -> ["jim": sourceMap.get("foo")] }
+        def batchUri = new RestRemoteSchemaSource.BatchUri("${server.url("/foos")}?ids={id}", "values", "key", 0)
+        def fooRootField = new RestRemoteSchemaSource.RootField("foo", "${server.url("/foo/{id}")}", fooMapper, batchUri)
+
+        def link = Link.from(SchemaNamespace.of("bar"), "Bar", "foo", "fooId")
+                .to(SchemaNamespace.of("rr"), "Foo", "foo")
+                .argument("id")
+                .build()
+        def restSchemaSource = new RestRemoteSchemaSource(SchemaNamespace.of("rr"),
+                { -> new StringReader(schema) },
+                new HttpRestRemoteRetriever(),
+                ["foo": fooRootField],
+                [],
+                "foo"
+        )
+
+        def environments = ["a", "b", "a", null, "c"].collect { id ->
+            def de = mock(DataFetchingEnvironment.class)
+            when(de.getSource()).thenReturn(["fooId": id])
+            de
+        }
+
+        def result = restSchemaSource.newBatchLoader(restSchemaSource, link).load(environments)
+        assert result.get().data == [["jim": "bar"], ["jim": "baz"], ["jim": "bar"], null, null]
+        assert server.requestCount == 1
+        assert server.takeRequest().path == "/foos?ids=a,b,c"
+    }
+
+    @Test
+    void restRemoteLinkWithBatchUriOfNonStringIds() {
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setBody(toJson(["values": [["key": 1, "foo": "bar"], ["key": "2", "foo": "baz"]]])))
+        server.start()
+
+        def schema = """
+schema {
+    query: Query
+  }
+  type Query {
+    foo(id: String) : Foo
+  } 
+  type Foo {
+      jim: String
+  } 
+"""
+
+        def fooMapper = { sourceMap -> ["jim": sourceMap.get("foo")] }
+        def batchUri = new RestRemoteSchemaSource.BatchUri("${server.url("/foos")}?ids={id}", "values", "key", 0)
+        def fooRootField = new RestRemoteSchemaSource.RootField("foo", "${server.url("/foo/{id}")}", fooMapper, batchUri)
+
+        def link = Link.from(SchemaNamespace.of("bar"), "Bar", "foo", "fooId")
+                .to(SchemaNamespace.of("rr"), "Foo", "foo")
+                .argument("id")
+                .build()
+        def restSchemaSource = new RestRemoteSchemaSource(SchemaNamespace.of("rr"),
+                { -> new StringReader(schema) },
+                new HttpRestRemoteRetriever(),
+                ["foo": fooRootField],
+                [],
+                "foo"
+        )
+
+        // a numeric id, a list of ids, and an environment without source
+        def environments = [["fooId": 1], ["fooId": [2, null, 3]], null].collect { source ->
+            def de = mock(DataFetchingEnvironment.class)
+            when(de.getSource()).thenReturn(source)
+            de
+        }
+
+        def result = restSchemaSource.newBatchLoader(restSchemaSource, link).load(environments)
+        assert result.get().data == [["jim": "bar"], [["jim": "baz"], null, null], null]
+        assert server.requestCount == 1
+        assert server.takeRequest().path == "/foos?ids=1,2,3"
+    }
+
+    @Test
+    void restRemoteLinkWithSameUriIsCalledOnce() {
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setBody(toJson(["foo": "bar"])))
+        server.enqueue(new MockResponse().setBody(toJson(["foo": "baz"])))
+        server.start()
+
+        def schema = """
+schema {
+    query: Query
+  }
+  type Query {
+    foo(id: String) : Foo
+  } 
+  type Foo {
+      jim: String
+  } 
+"""
+
+        def fooMapper = { sourceMap -> ["jim": sourceMap.get("foo")] }
+        def fooRootField = new RestRemoteSchemaSource.RootField("foo", "${server.url("/foo/{id}")}", fooMapper)
+
+        def link = Link.from(SchemaNamespace.of("bar"), "Bar", "foo", "fooId")
+                .to(SchemaNamespace.of("rr"), "Foo", "foo")
+                .argument("id")
+                .build()
+        def restSchemaSource = new RestRemoteSchemaSource(SchemaNamespace.of("rr"),
+                { -> new StringReader(schema) },
+                new HttpRestRemoteRetriever(),
+                ["foo": fooRootField],
+                [],
+                "foo"
+        )
+
+        def environments = ["a", "a"].collect { id ->
+            def de = mock(DataFetchingEnvironment.class)
+            when(de.getSource()).thenReturn(["fooId": id])
+            de
+        }
+
+        def result = restSchemaSource.newBatchLoader(restSchemaSource, link).load(environments)
+        assert result.get().data == [["jim": "bar"], ["jim": "bar"]]
+        assert server.requestCount == 1
+    }
 }
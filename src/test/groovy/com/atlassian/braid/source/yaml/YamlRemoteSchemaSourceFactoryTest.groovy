@@ -70,6 +70,29 @@ schema: |
             .to(SchemaNamespace.of("bar"), "Bar", "topbar").argument("id").build()]
     }
 
+    @Test(expected = IllegalArgumentException)
+    void nonPositiveMaxBatchSize() {
+        def yaml = '''
+name: "test"
+maxBatchSize: 0
+schema: |
+  schema {
+      query: Query
+  }
+  type Query {
+      foo: String
+  }
+'''
+        YamlRemoteSchemaSourceFactory.createGraphQLSource(new StringReader(yaml), mock(GraphQLRemoteRetriever.class))
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void nonPositiveLinkMaxBatchSize() {
+        Link.from(SchemaNamespace.of("test"), "Foo", "bar", "id")
+            .to(SchemaNamespace.of("bar"), "Bar", "topbar")
+            .setMaxBatchSize(-1)
+    }
+
     @Test
     void topLevelFields() {
         def yaml = '''
@@ -0,0 +1,108 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.document.DocumentMappers;
+import com.atlassian.braid.source.LocalQueryExecutingSchemaSource;
+import com.google.common.collect.ImmutableMap;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatchWindow;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BraidDataLoaderDispatchWindowTest {
+
+    private static final SchemaNamespace FOO = SchemaNamespace.of("foo");
+    private static final SchemaNamespace BAR = SchemaNamespace.of("bar");
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private final List<ExecutionInput> fooQueries = new CopyOnWriteArrayList<>();
+    private final List<ExecutionInput> barQueries = new CopyOnWriteArrayList<>();
+
+    // resolved by the test, as a field of a slow service would
+    private final CompletableFuture<Map<String, Object>> slowFoo = new CompletableFuture<>();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testLoadMadeDuringTheWindowReleasesTheDispatchOnceTheSizeThresholdIsReached() throws Exception {
+        // the window never elapses within the test, only the size threshold can release the dispatch
+        final Braid.BraidGraphQL graphql = newGraphQL(DataLoaderDispatchWindow.of(Duration.ofHours(1), 2, scheduler));
+
+        final CompletableFuture<ExecutionResult> result = graphql.execute(newExecutionInput()
+                .query("{ foo(id: \"fooid\") { name } slowFoo { name bar { title } } }")
+                .build());
+
+        // a single load is pending, the dispatch is held
+        assertThat(fooQueries).isEmpty();
+        assertThat(result).isNotDone();
+
+        // the linked bar of the slow foo is the second load
+        slowFoo.complete(ImmutableMap.of("name", "Slow Foo", "barid", "barid"));
+
+        final ExecutionResult executionResult = result.get(5, SECONDS);
+        assertThat(executionResult.getErrors()).isEmpty();
+        assertThat(executionResult.<Map<String, Object>>getData()).isEqualTo(ImmutableMap.of(
+                "foo", singletonMap("name", "Foo"),
+                "slowFoo", ImmutableMap.of("name", "Slow Foo", "bar", singletonMap("title", "Bar"))));
+        assertThat(fooQueries).hasSize(1);
+        assertThat(barQueries).hasSize(1);
+    }
+
+    private Braid.BraidGraphQL newGraphQL(DataLoaderDispatchWindow dispatchWindow) {
+        final Link link = Link.from(FOO, "Foo", "bar", "barid")
+                .to(BAR, "Bar", "topbar")
+                .build();
+
+        return Braid.builder()
+                .typeDefinitionRegistry(parse("schema { query: Query } type Query { slowFoo: Foo }"))
+                .withRuntimeWiring(wiring -> wiring.type("Query", type -> type.dataFetcher("slowFoo", __ -> slowFoo)))
+                .schemaSource(new LocalQueryExecutingSchemaSource(FOO,
+                        parse("schema { query: Query } "
+                                + "type Query { foo(id: String): Foo } "
+                                + "type Foo { name: String barid: String }"),
+                        singletonList(link),
+                        DocumentMappers.identity(),
+                        input -> {
+                            fooQueries.add(input);
+                            return singletonMap("foo100", singletonMap("name", "Foo"));
+                        }))
+                .schemaSource(new LocalQueryExecutingSchemaSource(BAR,
+                        parse("schema { query: Query } "
+                                + "type Query { topbar(id: String): Bar } "
+                                + "type Bar { id: String title: String }"),
+                        emptyList(),
+                        DocumentMappers.identity(),
+                        input -> {
+                            barQueries.add(input);
+                            return singletonMap("bar100", singletonMap("title", "Bar"));
+                        }))
+                .dataLoaderDispatchWindow(dispatchWindow)
+                .build()
+                .newGraphQL();
+    }
+
+    private static TypeDefinitionRegistry parse(String schema) {
+        return new SchemaParser().parse(schema);
+    }
+}
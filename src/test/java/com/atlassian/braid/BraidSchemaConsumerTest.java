@@ -2,6 +2,7 @@ package com.atlassian.braid;
 
 import com.atlassian.braid.source.LocalQueryExecutingSchemaSource;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.execution.DataFetcherResult;
@@ -15,8 +16,15 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import java.io.Reader;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -26,6 +34,7 @@ import static graphql.ExecutionInput.newExecutionInput;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -121,6 +130,51 @@ public class BraidSchemaConsumerTest {
         assertEquals(data.get("foo").get("name"), "Foo");
     }
 
+    @Test
+    public void testConcurrentExecutionsHaveTheirOwnDataLoaders() throws Exception {
+        final Supplier<Reader> fooRegistry = () -> getResourceAsReader("/com/atlassian/braid/foo.graphql");
+
+        // both executions must query the source at the same time, each in its own batch and with its own context
+        final CyclicBarrier bothQuerying = new CyclicBarrier(2);
+        final List<Object> queriedContexts = new CopyOnWriteArrayList<>();
+
+        Braid braid = Braid.builder()
+                .schemaSource(new LocalQueryExecutingSchemaSource(FOO, fooRegistry, input -> {
+                    queriedContexts.add(input.getContext());
+                    try {
+                        bothQuerying.await(5, SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return singletonMap("foo100", ImmutableMap.of("id", "fooid", "name", input.getContext()));
+                }))
+                .build();
+
+        // the same instance is used by both executions
+        final Braid.BraidGraphQL graphql = braid.newGraphQL();
+        final String query = "{ foo(id: \"fooid\") { id, name } }";
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ExecutionResult> first = executor.submit(() ->
+                    graphql.execute(newExecutionInput().query(query).context("first").build()).join());
+            final Future<ExecutionResult> second = executor.submit(() ->
+                    graphql.execute(newExecutionInput().query(query).context("second").build()).join());
+
+            assertEquals(emptyList(), first.get(5, SECONDS).getErrors());
+            assertEquals(emptyList(), second.get(5, SECONDS).getErrors());
+            assertEquals(singletonMap("foo", ImmutableMap.of("id", "fooid", "name", "first")),
+                    first.get().getData());
+            assertEquals(singletonMap("foo", ImmutableMap.of("id", "fooid", "name", "second")),
+                    second.get().getData());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ImmutableSet.of("first", "second"), new HashSet<>(queriedContexts));
+        assertEquals(2, queriedContexts.size());
+    }
+
     private static ExecutionInputMatcher matchesInput(ExecutionInput input) {
         return new ExecutionInputMatcher(input);
     }
@@ -38,6 +38,10 @@ public class BraidTest {
     public void testBraidWithMultipleSameAliasedQueries() {
     }
 
+    @Test
+    public void testBraidWithMultipleIdenticalQueries() {
+    }
+
     @Test
     public void testBraidWithExtraVariables() {
     }
@@ -94,6 +98,29 @@ public class BraidTest {
     public void testBraidWithLinkOfIds() {
     }
 
+    @Test
+    public void testBraidWithLinkOfDuplicateIds() {
+    }
+
+    @Test
+    public void testBraidWithLinkWithMergedSelections() {
+    }
+
+    @Test
+    public void testBraidWithLinkResultCacheAndMergedSelections() {
+    }
+
+    @Test
+    public void testBraidWithLinkResultCachePartitionedByContext() {
+        final LinkResultCache resultCache = braidRule.resultCaches.get(0);
+        assertThat(resultCache.getHitCount()).isEqualTo(1);
+        assertThat(resultCache.getMissCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testBraidWithLinkWithMaxBatchSize() {
+    }
+
     @Test
     public void testBraidWithLinkOfNullIds() {
     }
@@ -0,0 +1,79 @@
+package com.atlassian.braid;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LinkResultCacheTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    public void testHitsAndMisses() {
+        final LinkResultCache cache = LinkResultCache.newBuilder().ticker(ticker::get).build();
+        final Map<String, Object> value = singletonMap("id", "foo");
+
+        assertThat(cache.get("foo")).isNull();
+        cache.put("foo", value);
+        assertThat(cache.get("foo")).isSameAs(value);
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEntriesExpireAfterWrite() {
+        final LinkResultCache cache = LinkResultCache.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .ticker(ticker::get)
+                .build();
+
+        cache.put("foo", "bar");
+        ticker.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get("foo")).isEqualTo("bar");
+
+        ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get("foo")).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        final LinkResultCache cache = LinkResultCache.newBuilder().maximumSize(2).ticker(ticker::get).build();
+
+        cache.put("foo", "foo");
+        cache.put("bar", "bar");
+        cache.get("foo");
+        cache.put("baz", "baz");
+
+        assertThat(cache.get("bar")).isNull();
+        assertThat(cache.get("foo")).isEqualTo("foo");
+        assertThat(cache.get("baz")).isEqualTo("baz");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEntriesAreEvictedByWeight() {
+        final LinkResultCache cache = LinkResultCache.newBuilder()
+                .maximumWeight(10, value -> ((String) value).length())
+                .ticker(ticker::get)
+                .build();
+
+        cache.put("foo", "12345");
+        cache.put("bar", "1234");
+        assertThat(cache.getWeight()).isEqualTo(9);
+
+        cache.put("baz", "12");
+        assertThat(cache.get("foo")).isNull();
+        assertThat(cache.getWeight()).isEqualTo(6);
+
+        cache.put("too-big", "12345678901");
+        assertThat(cache.get("too-big")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.runners.model.Statement;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,7 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Executes a test by using the test name to find a yml file containing all the information to execute and test a
@@ -53,6 +55,11 @@ public class YamlBraidExecutionRule implements MethodRule {
 
     public Braid braid = null;
 
+    /**
+     * The result caches of the links with a {@code resultCache}, their partition key is the context itself
+     */
+    public final List<LinkResultCache> resultCaches = new ArrayList<>();
+
     @Override
     public Statement apply(Statement base, FrameworkMethod method, Object target) {
         return new Statement() {
@@ -60,26 +67,29 @@ public class YamlBraidExecutionRule implements MethodRule {
             public void evaluate() throws Throwable {
                 try {
                     TestConfiguration config = loadFromYaml(getYamlPath(method));
+                    List<TestSchemaSource> schemaSources = config.getSchemaSources();
 
                     braid = Braid.builder()
                             .withRuntimeWiring(rwb -> rwb.type("Fooable", wiring -> wiring.typeResolver(__ -> null)))
-                            .schemaSources(loadSchemaSources(config))
+                            .schemaSources(loadSchemaSources(schemaSources))
                             .build();
 
-                    final TestQuery request = config.getRequest();
-
-                    ExecutionInput.Builder executionInputBuilder = ExecutionInput.newExecutionInput()
-                            .query(request.getQuery())
-                            .variables(request.getVariables());
+                    // several requests are executed in order against the same braid, e.g. to test caching
+                    final List<Map<String, Object>> requests = config.getRequests();
+                    for (Map<String, Object> request : requests) {
+                        executionResult = execute(new TestQuery(cast(request.get("request"))));
 
-                    request.getOperation().ifPresent(executionInputBuilder::operationName);
+                        Map<String, Object> response = cast(request.get("response"));
 
-                    executionResult = braid.newGraphQL().execute(executionInputBuilder.build()).join();
+                        assertEquals(response.get("errors"), toSpecification(executionResult.getErrors()));
+                        assertEquals(response.get("data"), executionResult.<Map<String, Object>>getData());
+                    }
 
-                    Map<String, Object> response = config.getResponse();
-
-                    assertEquals(response.get("errors"), toSpecification(executionResult.getErrors()));
-                    assertEquals(response.get("data"), executionResult.<Map<String, Object>>getData());
+                    if (requests.size() > 1) {
+                        schemaSources.forEach(schemaSource -> assertTrue(
+                                schemaSource.getName() + " should also have been queried " + schemaSource.getExpected(),
+                                schemaSource.getExpected().isEmpty()));
+                    }
 
                     base.evaluate();
                 } catch (IOException e) {
@@ -89,8 +99,19 @@ public class YamlBraidExecutionRule implements MethodRule {
         };
     }
 
-    private List<SchemaSource> loadSchemaSources(TestConfiguration config) {
-        return config.getSchemaSources()
+    private ExecutionResult execute(TestQuery request) {
+        ExecutionInput.Builder executionInputBuilder = ExecutionInput.newExecutionInput()
+                .query(request.getQuery())
+                .variables(request.getVariables());
+
+        request.getOperation().ifPresent(executionInputBuilder::operationName);
+        request.getContext().ifPresent(executionInputBuilder::context);
+
+        return braid.newGraphQL().execute(executionInputBuilder.build()).join();
+    }
+
+    private List<SchemaSource> loadSchemaSources(List<TestSchemaSource> schemaSources) {
+        return schemaSources
                 .stream()
                 .map(schemaSource -> new LocalQueryExecutingSchemaSource(
                         schemaSource.getNamespace(),
@@ -108,7 +129,7 @@ public class YamlBraidExecutionRule implements MethodRule {
                 .orElse(emptyList());
     }
 
-    private static Link getLink(TestSchemaSource schemaSource, Map<String, Map<String, Object>> l) {
+    private Link getLink(TestSchemaSource schemaSource, Map<String, Map<String, Object>> l) {
         final Map<String, Object> from = l.get("from");
         final Map<String, Object> to = l.get("to");
 
@@ -127,6 +148,14 @@ public class YamlBraidExecutionRule implements MethodRule {
 
         BraidMaps.get(to, "argument").map(BraidObjects::<String>cast).ifPresent(link::argument);
         BraidMaps.get(to, "nullable").map(BraidObjects::<Boolean>cast).ifPresent(link::setNullable);
+        BraidMaps.get(to, "mergeSelections").map(BraidObjects::<Boolean>cast).ifPresent(link::setMergeSelections);
+        BraidMaps.get(to, "maxBatchSize").map(BraidObjects::<Integer>cast).ifPresent(link::setMaxBatchSize);
+        BraidMaps.get(to, "resultCache").map(BraidObjects::<Boolean>cast).filter(Boolean::booleanValue)
+                .ifPresent(__ -> {
+                    final LinkResultCache resultCache = LinkResultCache.newBuilder().build();
+                    resultCaches.add(resultCache);
+                    link.setResultCache(resultCache, context -> context);
+                });
 
         return link.build();
     }
@@ -182,11 +211,14 @@ public class YamlBraidExecutionRule implements MethodRule {
             this.configMap = requireNonNull(configMap);
         }
 
-        TestQuery getRequest() {
-            return BraidMaps.get(configMap, "request")
-                    .map(BraidObjects::<Map<String, Object>>cast)
-                    .map(TestQuery::new)
-                    .orElse(null);
+        /**
+         * @return the requests to execute, each with its {@code request} and expected {@code response}, either as a
+         * {@code requests} list or as a single request at the top level
+         */
+        List<Map<String, Object>> getRequests() {
+            return BraidMaps.get(configMap, "requests")
+                    .map(BraidObjects::<List<Map<String, Object>>>cast)
+                    .orElseGet(() -> singletonList(configMap));
         }
 
         List<TestSchemaSource> getSchemaSources() {
@@ -195,12 +227,6 @@ public class YamlBraidExecutionRule implements MethodRule {
                     .map(sources -> sources.stream().map(TestSchemaSource::new).collect(toList()))
                     .orElse(emptyList());
         }
-
-        Map<String, Object> getResponse() {
-            return BraidMaps.get(configMap, "response")
-                    .map(BraidObjects::<Map<String, Object>>cast)
-                    .orElse(null);
-        }
     }
 
     private static class TestQuery {
@@ -221,6 +247,10 @@ public class YamlBraidExecutionRule implements MethodRule {
         Optional<String> getOperation() {
             return Optional.ofNullable(requestMap.get("operation")).map(String.class::cast);
         }
+
+        Optional<Object> getContext() {
+            return Optional.ofNullable(requestMap.get("context"));
+        }
     }
 
     private static class TestSchemaSource {
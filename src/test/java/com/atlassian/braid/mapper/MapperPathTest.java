@@ -0,0 +1,66 @@
+package com.atlassian.braid.mapper;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MapperPathTest {
+
+    private static final Map<String, Object> DATA =
+            singletonMap("foo", singletonMap("bar", asList(singletonMap("baz", "value"), "other")));
+
+    @Test
+    public void testPlainKey() {
+        assertThat(get("foo")).isSameAs(DATA.get("foo"));
+    }
+
+    @Test
+    public void testPlainKeyIsNotParsed() {
+        assertThat(MapperPath.parse("foo.bar").get().get(singletonMap("foo.bar", "value"))).contains("value");
+    }
+
+    @Test
+    public void testBracketPath() {
+        assertThat(get("['foo']['bar'][0]['baz']")).isEqualTo("value");
+        assertThat(get("[\"foo\"][\"bar\"][1]")).isEqualTo("other");
+    }
+
+    @Test
+    public void testEscapedQuote() {
+        assertThat(MapperPath.parse("['it''s']").get().get(singletonMap("it's", "value"))).contains("value");
+    }
+
+    @Test
+    public void testMissingValue() {
+        assertThat(MapperPath.parse("['foo']['baz']").get().get(DATA)).isEmpty();
+    }
+
+    @Test
+    public void testMissingIntermediateValue() {
+        assertThatThrownBy(() -> MapperPath.parse("['baz']['bar']").get().get(DATA))
+                .isInstanceOf(MapperException.class);
+    }
+
+    @Test
+    public void testIndexOutOfBounds() {
+        assertThatThrownBy(() -> MapperPath.parse("['foo']['bar'][2]").get().get(DATA))
+                .isInstanceOf(MapperException.class);
+    }
+
+    @Test
+    public void testExpressionsAreNotPaths() {
+        assertThat(MapperPath.parse("['foo'].bar")).isEmpty();
+        assertThat(MapperPath.parse("['foo']?.bar")).isEmpty();
+        assertThat(MapperPath.parse("['foo'")).isEmpty();
+        assertThat(MapperPath.parse("[foo]")).isEmpty();
+    }
+
+    private static Object get(String path) {
+        return MapperPath.parse(path).get().get(DATA).orElse(null);
+    }
+}
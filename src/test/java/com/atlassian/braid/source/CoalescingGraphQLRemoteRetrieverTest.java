@@ -0,0 +1,131 @@
+package com.atlassian.braid.source;
+
+import graphql.ExecutionInput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoalescingGraphQLRemoteRetrieverTest {
+
+    private final List<CompletableFuture<Map<String, Object>>> remoteQueries = new ArrayList<>();
+
+    private final CoalescingGraphQLRemoteRetriever<String> retriever = new CoalescingGraphQLRemoteRetriever<>(
+            (executionInput, context) -> {
+                final CompletableFuture<Map<String, Object>> query = new CompletableFuture<>();
+                remoteQueries.add(query);
+                return query;
+            },
+            context -> context);
+
+    @Test
+    public void testIdenticalConcurrentQueriesAreShared() {
+        final CompletableFuture<Map<String, Object>> first = retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+        final CompletableFuture<Map<String, Object>> second = retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(1);
+        assertThat(retriever.getInFlightQueryCount()).isEqualTo(1);
+
+        final Map<String, Object> response = singletonMap("data", singletonMap("foo", "baz"));
+        remoteQueries.get(0).complete(response);
+
+        assertThat(first.join()).isSameAs(response);
+        assertThat(second.join()).isSameAs(response);
+        assertThat(retriever.getQueryCount()).isEqualTo(1);
+        assertThat(retriever.getCoalescedQueryCount()).isEqualTo(1);
+        assertThat(retriever.getInFlightQueryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCompletedQueriesAreNotShared() {
+        retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+        remoteQueries.get(0).complete(singletonMap("data", null));
+        retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(2);
+        assertThat(retriever.getCoalescedQueryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testQueriesWithDifferentVariablesOrPartitionsAreNotShared() {
+        retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+        retriever.queryGraphQL(query("query { foo }", "baz"), "user");
+        retriever.queryGraphQL(query("query { foo }", "bar"), "other-user");
+
+        assertThat(remoteQueries).hasSize(3);
+    }
+
+    @Test
+    public void testMutationsAreNotShared() {
+        retriever.queryGraphQL(query("mutation { foo }", "bar"), "user");
+        retriever.queryGraphQL(query("mutation { foo }", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(2);
+    }
+
+    @Test
+    public void testMutationsAfterACommentOrAFragmentAreNotShared() {
+        retriever.queryGraphQL(query("# foo\nmutation { foo }", "bar"), "user");
+        retriever.queryGraphQL(query("# foo\nmutation { foo }", "bar"), "user");
+        retriever.queryGraphQL(query("fragment F on Mutation { foo } mutation { ...F }", "bar"), "user");
+        retriever.queryGraphQL(query("fragment F on Mutation { foo } mutation { ...F }", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(4);
+    }
+
+    @Test
+    public void testQueriesWithALineStartingWithMutationAreShared() {
+        retriever.queryGraphQL(query("query {\n  foo(\n    mutation: true\n  )\n}", "bar"), "user");
+        retriever.queryGraphQL(query("query {\n  foo(\n    mutation: true\n  )\n}", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(1);
+    }
+
+    @Test
+    public void testOnlyTheSelectedQueryOperationIsShared() {
+        final String document = "query Foo { foo } mutation Bar { bar }";
+        retriever.queryGraphQL(query(document, "Foo", "bar"), "user");
+        retriever.queryGraphQL(query(document, "Foo", "bar"), "user");
+        retriever.queryGraphQL(query(document, "Bar", "bar"), "user");
+        retriever.queryGraphQL(query(document, "Bar", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(3);
+    }
+
+    @Test
+    public void testInvalidQueriesAreNotShared() {
+        retriever.queryGraphQL(query("query { foo", "bar"), "user");
+        retriever.queryGraphQL(query("query { foo", "bar"), "user");
+
+        assertThat(remoteQueries).hasSize(2);
+    }
+
+    @Test
+    public void testFailuresAreShared() {
+        final CompletableFuture<Map<String, Object>> first = retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+        final CompletableFuture<Map<String, Object>> second = retriever.queryGraphQL(query("query { foo }", "bar"), "user");
+
+        remoteQueries.get(0).completeExceptionally(new IllegalStateException("failed"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+        assertThat(retriever.getInFlightQueryCount()).isEqualTo(0);
+    }
+
+    private static ExecutionInput query(String query, String variable) {
+        return query(query, null, variable);
+    }
+
+    private static ExecutionInput query(String query, String operationName, String variable) {
+        return ExecutionInput.newExecutionInput()
+                .query(query)
+                .operationName(operationName)
+                .variables(singletonMap("foo", variable))
+                .build();
+    }
+}
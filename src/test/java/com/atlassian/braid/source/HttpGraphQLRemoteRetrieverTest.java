@@ -0,0 +1,186 @@
+package com.atlassian.braid.source;
+
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionInput;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpGraphQLRemoteRetrieverTest {
+
+    private static final String RESPONSE =
+            "{\"data\":{\"foo\":{\"id\":\"1\",\"count\":2,\"score\":1.5,\"tags\":[\"a\",null],\"active\":true}}}";
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testQueryIsPostedAsJson() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("id", "1");
+        variables.put("ids", asList(1, 2));
+        variables.put("input", singletonMap("name", null));
+        query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url()),
+                newExecutionInput().query("query Q($id: String) { foo(id: $id) { id } }")
+                        .operationName("Q")
+                        .variables(variables)
+                        .build());
+
+        final RecordedRequest request = server.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/graphql");
+        assertThat(request.getHeader("Content-Type")).startsWith("application/json");
+        assertThat(request.getHeader("Accept")).isEqualTo("application/json");
+
+        final Map<?, ?> body = mapper.readValue(request.getBody().readUtf8(), Map.class);
+        assertThat(body.get("query")).isEqualTo("query Q($id: String) { foo(id: $id) { id } }");
+        assertThat(body.get("operationName")).isEqualTo("Q");
+        assertThat(body.get("variables")).isEqualTo(variables);
+    }
+
+    @Test
+    public void testResponseIsDecoded() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final Map<String, Object> response = query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url()));
+
+        assertThat(response).isEqualTo(mapper.readValue(RESPONSE, Map.class));
+    }
+
+    @Test
+    public void testGzipResponseIsDecompressed() throws Exception {
+        final Buffer gzipped = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.writeUtf8(RESPONSE);
+        }
+        server.enqueue(new MockResponse().setBody(gzipped).setHeader("Content-Encoding", "gzip"));
+
+        final Map<String, Object> response = query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url()));
+
+        assertThat(server.takeRequest().getHeader("Accept-Encoding")).isEqualTo("gzip");
+        assertThat(response).isEqualTo(mapper.readValue(RESPONSE, Map.class));
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final HttpGraphQLRemoteRetriever<Object> retriever =
+                new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url());
+        query(retriever);
+        query(retriever);
+
+        assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(0);
+        assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRequestIsCustomizedWithContext() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final HttpGraphQLRemoteRetriever<String> retriever =
+                HttpGraphQLRemoteRetriever.<String>newBuilder(server.url("/graphql").url())
+                        .requestCustomizer((request, context) -> request.header("Authorization", "Bearer " + context))
+                        .build();
+        retriever.queryGraphQL(newExecutionInput().query("{ foo { id } }").build(), "token")
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(server.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token");
+    }
+
+    @Test
+    public void testErrorStatusWithResponseIsDecoded() throws Exception {
+        final String errorResponse = "{\"data\":null,\"errors\":[{\"message\":\"Bad query\"}]}";
+        server.enqueue(new MockResponse().setResponseCode(400).setBody(errorResponse));
+
+        final Map<String, Object> response = query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url()));
+
+        assertThat(response).isEqualTo(mapper.readValue(errorResponse, Map.class));
+    }
+
+    @Test
+    public void testErrorStatusFails() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThatThrownBy(() -> query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url())))
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("503");
+    }
+
+    @Test
+    public void testErrorStatusWithoutJsonResponseFails() {
+        server.enqueue(new MockResponse().setResponseCode(502).setBody("<html>Bad Gateway</html>"));
+
+        assertThatThrownBy(() -> query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url())))
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("502");
+    }
+
+    @Test
+    public void testErrorStatusWithNonGraphQLJsonResponseFails() {
+        server.enqueue(new MockResponse().setResponseCode(401).setBody("{\"message\":\"Unauthorized\"}"));
+
+        assertThatThrownBy(() -> query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url())))
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("401");
+    }
+
+    @Test
+    public void testUnsupportedVariableFails() {
+        final ExecutionInput executionInput = newExecutionInput()
+                .query("query Q($id: String) { foo(id: $id) { id } }")
+                .variables(singletonMap("id", new Object()))
+                .build();
+
+        assertThatThrownBy(() -> query(new HttpGraphQLRemoteRetriever<>(server.url("/graphql").url()), executionInput))
+                .hasCauseInstanceOf(JsonGenerationException.class)
+                .hasMessageContaining("java.lang.Object");
+    }
+
+    @Test
+    public void testReadTimeout() {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        final HttpGraphQLRemoteRetriever<Object> retriever =
+                HttpGraphQLRemoteRetriever.newBuilder(server.url("/graphql").url())
+                        .readTimeout(Duration.ofMillis(100))
+                        .build();
+
+        assertThatThrownBy(() -> query(retriever)).hasCauseInstanceOf(InterruptedIOException.class);
+    }
+
+    private static Map<String, Object> query(HttpGraphQLRemoteRetriever<Object> retriever) throws Exception {
+        return query(retriever, newExecutionInput().query("{ foo { id } }").build());
+    }
+
+    private static Map<String, Object> query(HttpGraphQLRemoteRetriever<Object> retriever,
+                                             ExecutionInput executionInput) throws Exception {
+        return retriever.queryGraphQL(executionInput, new Object()).get(5, TimeUnit.SECONDS);
+    }
+}
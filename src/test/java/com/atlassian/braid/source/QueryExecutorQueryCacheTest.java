@@ -0,0 +1,153 @@
+package com.atlassian.braid.source;
+
+import com.atlassian.braid.Braid;
+import com.atlassian.braid.Link;
+import com.atlassian.braid.SchemaNamespace;
+import com.atlassian.braid.SchemaSource;
+import com.atlassian.braid.document.DocumentMapper;
+import com.atlassian.braid.document.DocumentMappers;
+import com.google.common.collect.ImmutableMap;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.BatchLoader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.atlassian.braid.Util.parseRegistry;
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class QueryExecutorQueryCacheTest {
+
+    private static final String FOO_WITH_NAME = "query($id: String) { foo(id: $id) { id name } }";
+    private static final String FOO_WITHOUT_NAME = "query($id: String) { foo(id: $id) { id } }";
+
+    private final List<ExecutionInput> queries = new ArrayList<>();
+
+    @Test
+    public void testBatchQueryOfTheSameShapeIsReusedWithItsOwnVariables() {
+        final Braid.BraidGraphQL graphql = newGraphQL(QueryExecutor.DEFAULT_QUERY_CACHE_WEIGHT);
+
+        execute(graphql, FOO_WITH_NAME, "fooid1");
+        execute(graphql, FOO_WITH_NAME, "fooid2");
+
+        assertEquals(2, queries.size());
+        assertSame(queries.get(0).getQuery(), queries.get(1).getQuery());
+        assertEquals(singletonMap("id100", "fooid1"), queries.get(0).getVariables());
+        assertEquals(singletonMap("id100", "fooid2"), queries.get(1).getVariables());
+    }
+
+    @Test
+    public void testBatchQueriesOfDifferentShapesAreCachedSeparately() {
+        final Braid.BraidGraphQL graphql = newGraphQL(QueryExecutor.DEFAULT_QUERY_CACHE_WEIGHT);
+
+        execute(graphql, FOO_WITH_NAME, "fooid1");
+        execute(graphql, FOO_WITHOUT_NAME, "fooid2");
+        execute(graphql, FOO_WITH_NAME, "fooid3");
+
+        assertEquals(3, queries.size());
+        assertNotSame(queries.get(0).getQuery(), queries.get(1).getQuery());
+        assertSame(queries.get(0).getQuery(), queries.get(2).getQuery());
+        assertEquals(singletonMap("id100", "fooid3"), queries.get(2).getVariables());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedBatchQueryIsEvictedOnceTheCacheIsFull() {
+        // long enough for either query, but not both
+        final Braid.BraidGraphQL graphql = newGraphQL(100);
+
+        execute(graphql, FOO_WITH_NAME, "fooid1");
+        execute(graphql, FOO_WITHOUT_NAME, "fooid2");
+        execute(graphql, FOO_WITH_NAME, "fooid3");
+
+        // the first query was evicted by the second, and built again, identically, for the third
+        assertEquals(3, queries.size());
+        assertNotSame(queries.get(0).getQuery(), queries.get(2).getQuery());
+        assertEquals(queries.get(0).getQuery(), queries.get(2).getQuery());
+        assertEquals(singletonMap("id100", "fooid3"), queries.get(2).getVariables());
+    }
+
+    @Test
+    public void testBatchQueryLongerThanTheMaximumIsNotCached() {
+        final Braid.BraidGraphQL graphql =
+                newGraphQL(QueryExecutor.DEFAULT_QUERY_CACHE_WEIGHT, FOO_WITH_NAME.length() / 2);
+
+        execute(graphql, FOO_WITH_NAME, "fooid1");
+        execute(graphql, FOO_WITH_NAME, "fooid2");
+
+        assertEquals(2, queries.size());
+        assertNotSame(queries.get(0).getQuery(), queries.get(1).getQuery());
+        assertEquals(queries.get(0).getQuery(), queries.get(1).getQuery());
+    }
+
+    private Braid.BraidGraphQL newGraphQL(int queryCacheWeight) {
+        return newGraphQL(queryCacheWeight, QueryExecutor.DEFAULT_MAX_CACHED_QUERY_LENGTH);
+    }
+
+    private Braid.BraidGraphQL newGraphQL(int queryCacheWeight, int maxCachedQueryLength) {
+        final QueryFunction<Object> queryFunction = (input, context) -> {
+            queries.add(input);
+            return completedFuture(new DataFetcherResult<Map<String, Object>>(
+                    singletonMap("foo100", ImmutableMap.of("id", "fooid", "name", "Foo")), emptyList()));
+        };
+        return Braid.builder()
+                .schemaSource(new QueryCacheSizedSchemaSource(queryCacheWeight, maxCachedQueryLength, queryFunction))
+                .build()
+                .newGraphQL();
+    }
+
+    private static void execute(Braid.BraidGraphQL graphql, String query, String id) {
+        final ExecutionResult result = graphql.execute(newExecutionInput()
+                .query(query)
+                .variables(singletonMap("id", id))
+                .context(new Object())
+                .build())
+                .join();
+        assertEquals(emptyList(), result.getErrors());
+    }
+
+    /**
+     * A schema source whose batch loaders cache batch queries up to a given total length
+     */
+    private static final class QueryCacheSizedSchemaSource extends ForwardingSchemaSource
+            implements QueryExecutorSchemaSource {
+        private final BaseQueryExecutorSchemaSource<Object> delegate;
+        private final QueryExecutor<Object> queryExecutor;
+
+        private QueryCacheSizedSchemaSource(int queryCacheWeight, int maxCachedQueryLength,
+                                            QueryFunction<Object> queryFunction) {
+            this.delegate = new BaseQueryExecutorSchemaSource<>(SchemaNamespace.of("foo"),
+                    parseRegistry("/com/atlassian/braid/foo.graphql"),
+                    emptyList(),
+                    DocumentMappers.identity(),
+                    queryFunction);
+            this.queryExecutor = new QueryExecutor<>(queryFunction, queryCacheWeight, maxCachedQueryLength);
+        }
+
+        @Override
+        protected SchemaSource getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource,
+                                                                                              Link link) {
+            return queryExecutor.newBatchLoader(schemaSource, link);
+        }
+
+        @Override
+        public DocumentMapper getDocumentMapper() {
+            return delegate.getDocumentMapper();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.atlassian.braid.source.yaml;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UriTemplateTest {
+
+    @Test
+    public void testExpand() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("user", "foo");
+        values.put("page", 2);
+
+        assertThat(UriTemplate.parse("http://example.com/users/{user}/followers?page={page}").expand(values))
+                .isEqualTo("http://example.com/users/foo/followers?page=2");
+    }
+
+    @Test
+    public void testExpandWithoutParameters() {
+        assertThat(UriTemplate.parse("http://example.com/users").expand(emptyMap()))
+                .isEqualTo("http://example.com/users");
+    }
+
+    @Test
+    public void testValuesArePercentEncoded() {
+        assertThat(UriTemplate.parse("http://example.com/users/{user}").expand(singletonMap("user", "a b/c&d?\u00e9~")))
+                .isEqualTo("http://example.com/users/a%20b%2Fc%26d%3F%C3%A9~");
+    }
+
+    @Test
+    public void testReservedExpansionKeepsReservedCharacters() {
+        assertThat(UriTemplate.parse("http://example.com/repos/{+path}")
+                .expand(singletonMap("path", "a/b?c=d&e \u00e9")))
+                .isEqualTo("http://example.com/repos/a/b?c=d&e%20%C3%A9");
+    }
+
+    @Test
+    public void testReservedExpansionKeepsPercentEncodedOctets() {
+        assertThat(UriTemplate.parse("http://example.com/users/{+user}").expand(singletonMap("user", "a%20b%2Fc%zz")))
+                .isEqualTo("http://example.com/users/a%20b%2Fc%25zz");
+    }
+
+    @Test
+    public void testReservedExpansionParametersWithoutValueAreKept() {
+        assertThat(UriTemplate.parse("http://example.com/{+foo}").expand(emptyMap()))
+                .isEqualTo("http://example.com/{+foo}");
+    }
+
+    @Test
+    public void testIterableValuesAreCommaSeparated() {
+        assertThat(UriTemplate.parse("http://example.com/users?ids={ids}").expand(singletonMap("ids", asList("a", "b,c"))))
+                .isEqualTo("http://example.com/users?ids=a,b%2Cc");
+    }
+
+    @Test
+    public void testParametersWithoutValueAreKept() {
+        assertThat(UriTemplate.parse("http://example.com/{foo}/{bar}").expand(singletonMap("foo", "baz")))
+                .isEqualTo("http://example.com/baz/{bar}");
+    }
+
+    @Test
+    public void testUnclosedParameterIsLiteral() {
+        assertThat(UriTemplate.parse("http://example.com/{foo}/{bar").expand(singletonMap("foo", "baz")))
+                .isEqualTo("http://example.com/baz/{bar");
+    }
+}
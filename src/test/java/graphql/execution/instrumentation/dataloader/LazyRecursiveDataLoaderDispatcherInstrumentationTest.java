@@ -0,0 +1,153 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoaderOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class LazyRecursiveDataLoaderDispatcherInstrumentationTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(10);
+
+    private final ManualScheduledExecutorService scheduler = new ManualScheduledExecutorService();
+
+    private final List<List<String>> fooBatches = new ArrayList<>();
+    private final List<List<String>> barBatches = new ArrayList<>();
+
+    // requested dispatches, dispatched loaders and dispatched loads of each reported dispatch
+    private final List<List<Integer>> dispatches = new ArrayList<>();
+
+    private final TrackingDataLoaderRegistry registry = new TrackingDataLoaderRegistry();
+
+    @Before
+    public void setUp() {
+        registry.register("foo", recordingBatchLoader(fooBatches), DataLoaderOptions.newOptions());
+        registry.register("bar", recordingBatchLoader(barBatches), DataLoaderOptions.newOptions());
+    }
+
+    // graphql-java requests a single dispatch per execution, the following loads are made as (asynchronous) fields
+    // complete
+
+    @Test
+    public void testDispatchIsHeldUntilTheWindowElapses() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(100);
+
+        final CompletableFuture<String> a = load("foo", "a");
+        execution.onDispatched(new CompletableFuture<>());
+        final CompletableFuture<String> b = load("foo", "b");
+
+        scheduler.advance(WINDOW.minusMillis(1));
+        assertThat(fooBatches).isEmpty();
+
+        scheduler.advance(Duration.ofMillis(1));
+        assertThat(fooBatches).containsExactly(asList("a", "b"));
+        assertThat(a).isCompletedWithValue("A");
+        assertThat(b).isCompletedWithValue("B");
+    }
+
+    @Test
+    public void testDispatchIsReleasedOnceTheSizeThresholdIsReachedWhenRequested() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(2);
+
+        load("foo", "a");
+        load("bar", "b");
+        execution.onDispatched(new CompletableFuture<>());
+
+        assertThat(fooBatches).containsExactly(asList("a"));
+        assertThat(barBatches).containsExactly(asList("b"));
+    }
+
+    @Test
+    public void testDispatchIsReleasedOnceTheSizeThresholdIsReachedByALoadDuringTheWindow() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(2);
+
+        load("foo", "a");
+        execution.onDispatched(new CompletableFuture<>());
+        assertThat(fooBatches).isEmpty();
+
+        final CompletableFuture<String> b = load("foo", "b");
+        assertThat(fooBatches).containsExactly(asList("a", "b"));
+        assertThat(b).isCompletedWithValue("B");
+
+        // the window held before the threshold was reached doesn't dispatch again
+        scheduler.advance(WINDOW);
+        assertThat(fooBatches).hasSize(1);
+    }
+
+    @Test
+    public void testLoadsNoLongerReleaseTheDispatchOnceTheExecutionCompleted() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(1);
+        execution.onDispatched(new CompletableFuture<>());
+        execution.onCompleted(null, null);
+
+        load("foo", "a");
+        assertThat(fooBatches).isEmpty();
+    }
+
+    @Test
+    public void testMetricsAreNotifiedOfEachActualDispatch() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(100);
+
+        load("foo", "a");
+        execution.onDispatched(new CompletableFuture<>());
+        load("foo", "b");
+        load("bar", "c");
+
+        scheduler.advance(WINDOW);
+        assertThat(dispatches).containsExactly(asList(1, 2, 3));
+
+        // the dispatch following the completion of the batches finds nothing to dispatch, and isn't reported
+        scheduler.advance(WINDOW);
+        assertThat(scheduler.getPendingTaskCount()).isZero();
+        assertThat(dispatches).hasSize(1);
+    }
+
+    @Test
+    public void testDispatchIsNotHeldWhenTheSchedulerRejectsIt() {
+        final InstrumentationContext<ExecutionResult> execution = beginExecution(100);
+        scheduler.reject();
+
+        final CompletableFuture<String> a = load("foo", "a");
+        execution.onDispatched(new CompletableFuture<>());
+
+        assertThat(fooBatches).containsExactly(asList("a"));
+        assertThat(a).isCompletedWithValue("A");
+        assertThat(dispatches).containsExactly(asList(1, 1, 1));
+    }
+
+    private InstrumentationContext<ExecutionResult> beginExecution(int sizeThreshold) {
+        final DataLoaderDispatchWindow window = DataLoaderDispatchWindow.of(WINDOW, sizeThreshold, scheduler)
+                .withMetrics((requested, loaders, loads, heldNanos) -> {
+                    assertThat(heldNanos).isNotNegative();
+                    dispatches.add(asList(requested, loaders, loads));
+                });
+        return new LazyRecursiveDataLoaderDispatcherInstrumentation(registry, window)
+                .beginExecuteOperation(new InstrumentationExecuteOperationParameters(mock(ExecutionContext.class)));
+    }
+
+    private CompletableFuture<String> load(String loader, String key) {
+        return registry.<String, String>getDataLoader(loader).load(key);
+    }
+
+    private static BatchLoader<String, String> recordingBatchLoader(List<List<String>> batches) {
+        return keys -> {
+            batches.add(new ArrayList<>(keys));
+            return completedFuture(keys.stream().map(String::toUpperCase).collect(toList()));
+        };
+    }
+}
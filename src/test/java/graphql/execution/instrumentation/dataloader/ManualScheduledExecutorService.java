@@ -0,0 +1,144 @@
+package graphql.execution.instrumentation.dataloader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A scheduler whose time only moves forward when {@link #advance(Duration) advanced}, running the tasks then due on
+ * the calling thread. Only one-off tasks are supported.
+ */
+class ManualScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final List<ScheduledTask<?>> tasks = new ArrayList<>();
+    private long nanos = 0;
+    private boolean rejecting = false;
+
+    /**
+     * Moves the time forward, running the tasks due in order, including those scheduled by the tasks being run
+     */
+    void advance(Duration duration) {
+        final long until = nanos + duration.toNanos();
+        ScheduledTask<?> next;
+        while ((next = nextTaskDue(until)) != null) {
+            tasks.remove(next);
+            nanos = next.dueNanos;
+            next.run();
+        }
+        nanos = until;
+    }
+
+    private ScheduledTask<?> nextTaskDue(long until) {
+        ScheduledTask<?> next = null;
+        for (ScheduledTask<?> task : tasks) {
+            if (task.dueNanos <= until && (next == null || task.dueNanos < next.dueNanos)) {
+                next = task;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return the number of tasks scheduled and neither run nor cancelled yet
+     */
+    int getPendingTaskCount() {
+        return (int) tasks.stream().filter(task -> !task.isCancelled()).count();
+    }
+
+    /**
+     * Makes the scheduler reject any task from now on
+     */
+    void reject() {
+        rejecting = true;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(() -> {
+            command.run();
+            return null;
+        }, delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        if (rejecting) {
+            throw new RejectedExecutionException("rejecting all tasks");
+        }
+        final ScheduledTask<V> task = new ScheduledTask<>(callable, nanos + unit.toNanos(delay));
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        reject();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        reject();
+        final List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return rejecting;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return rejecting && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private final class ScheduledTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        private final long dueNanos;
+
+        private ScheduledTask(Callable<V> callable, long dueNanos) {
+            super(callable);
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - nanos, NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getDelay(NANOSECONDS), o.getDelay(NANOSECONDS));
+        }
+    }
+}
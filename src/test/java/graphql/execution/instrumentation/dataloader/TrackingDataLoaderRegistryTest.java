@@ -0,0 +1,111 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TrackingDataLoaderRegistryTest {
+
+    // the keys of the data loaders got from the registry, i.e. dispatched, in order
+    private final List<String> dispatchedKeys = new ArrayList<>();
+    private final List<List<String>> fooBatches = new ArrayList<>();
+
+    // loading through those doesn't go through the registry
+    private final Map<String, DataLoader<String, String>> loaders = new HashMap<>();
+
+    private final TrackingDataLoaderRegistry registry = new TrackingDataLoaderRegistry() {
+        @Override
+        public <K, V> DataLoader<K, V> getDataLoader(String key) {
+            dispatchedKeys.add(key);
+            return super.getDataLoader(key);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        // loading "a" loads "b" from the same data loader, as a field resolved from "a" would
+        registry.register("foo", (BatchLoader<String, String>) keys -> {
+            fooBatches.add(new ArrayList<>(keys));
+            if (keys.contains("a")) {
+                load("foo", "b");
+            }
+            return completedFuture(keys);
+        }, DataLoaderOptions.newOptions());
+        registry.register("bar", (BatchLoader<String, String>) CompletableFuture::completedFuture,
+                DataLoaderOptions.newOptions());
+        registry.register("baz", (BatchLoader<String, String>) CompletableFuture::completedFuture,
+                DataLoaderOptions.newOptions());
+
+        for (String key : registry.getKeys()) {
+            loaders.put(key, registry.getDataLoader(key));
+        }
+        dispatchedKeys.clear();
+    }
+
+    @Test
+    public void testOnlyLoadedDataLoadersAreDirty() {
+        assertThat(registry.getDirtyKeys()).isEmpty();
+
+        load("foo", "a");
+
+        assertThat(registry.getDirtyKeys()).containsExactly("foo");
+        assertThat(registry.takeDirtyKeys()).containsExactly("foo");
+        assertThat(registry.getDirtyKeys()).isEmpty();
+    }
+
+    @Test
+    public void testOnlyDirtyDataLoadersAreDispatched() {
+        final CompletableFuture<String> a = load("foo", "a");
+
+        new LazyRecursiveDataLoaderDispatcherInstrumentation(registry)
+                .beginExecuteOperation(new InstrumentationExecuteOperationParameters(mock(ExecutionContext.class)))
+                .onDispatched(new CompletableFuture<>());
+
+        // foo is dispatched again for the load made while it was being dispatched, the other loaders never are
+        assertThat(dispatchedKeys).containsExactly("foo", "foo");
+        assertThat(fooBatches).containsExactly(singletonList("a"), singletonList("b"));
+        assertThat(a).isCompletedWithValue("a");
+        assertThat(registry.getDirtyKeys()).isEmpty();
+    }
+
+    @Test
+    public void testDataLoadersRegisteredAsIsAreAlwaysDispatched() {
+        final List<List<String>> quxBatches = new ArrayList<>();
+        final BatchLoader<String, String> quxBatchLoader = keys -> {
+            quxBatches.add(new ArrayList<>(keys));
+            return completedFuture(keys);
+        };
+        final DataLoader<String, String> qux = new DataLoader<>(quxBatchLoader);
+        registry.register("qux", qux);
+        assertThat(registry.getDirtyKeys()).containsExactly("qux");
+
+        final CompletableFuture<String> a = qux.load("a");
+
+        new LazyRecursiveDataLoaderDispatcherInstrumentation(registry)
+                .beginExecuteOperation(new InstrumentationExecuteOperationParameters(mock(ExecutionContext.class)))
+                .onDispatched(new CompletableFuture<>());
+
+        assertThat(quxBatches).containsExactly(singletonList("a"));
+        assertThat(a).isCompletedWithValue("a");
+        assertThat(registry.getDirtyKeys()).containsExactly("qux");
+    }
+
+    private CompletableFuture<String> load(String loader, String key) {
+        return loaders.get(loader).load(key);
+    }
+}